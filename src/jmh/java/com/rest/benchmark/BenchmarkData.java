@@ -0,0 +1,45 @@
+package com.rest.benchmark;
+
+import com.rest.converter.RateTable;
+import com.rest.dto.ExchangeRates;
+import com.rest.dto.Money;
+import com.rest.entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic products and rates shared by the read path benchmarks
+ */
+final class BenchmarkData {
+
+    /**
+     * Rate table shaped like an HNB bulletin
+     */
+    static final RateTable RATES = RateTable.of(List.of(
+            new ExchangeRates("77", "2025-04-22", "SAD", "USA", "1,0807", "1,0839", "840", "1,0823", "USD"),
+            new ExchangeRates("77", "2025-04-22", "Švicarska", "CHE", "0,9391", "0,9419", "756", "0,9405", "CHF"),
+            new ExchangeRates("77", "2025-04-22", "V. Britanija", "GBR", "0,8511", "0,8537", "826", "0,8524", "GBP")));
+
+    private static final String[] NAMES = {"Milk", "Bread", "Lamp", "Chair", "Desk", "Kettle", "Pillow", "Mug"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param count Number of products
+     * @param withIds False for new entities the database assigns ids to
+     * @return Products with unique codes and prices up to 1000 EUR
+     */
+    static List<Product> products(final int count, final boolean withIds) {
+        final Random random = new Random(42);
+        final List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product(withIds ? (long) i : null, String.format("B%09d", i),
+                    NAMES[random.nextInt(NAMES.length)] + " " + i,
+                    Money.ofCents(random.nextInt(100_000)), random.nextInt(4) != 0));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,126 @@
+package com.rest.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request log lines of one GET /api/products on the calling thread.
+ * <p>
+ * Each invocation emits what the listing path used to log at INFO (controller and service progress, three lines):
+ * - {@code syncInfo}: INFO written synchronously to a file, as before
+ * - {@code asyncInfo}: INFO through the AsyncAppender of logback-spring.xml; once its queue is 80 % full INFO is
+ *   discarded, as in production
+ * - {@code gatedDebug}: the same lines at DEBUG with the logger at INFO, as now
+ * <p>
+ * Run with several threads ({@code -t 4}) to include contention on the appender lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] [%X{requestId:-}] %-40.40logger{39} : %m%n";
+
+    private LoggerContext context;
+
+    private File logFile;
+
+    private Logger syncLogger;
+
+    private Logger asyncLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.putProperty("pid", String.valueOf(ProcessHandle.current().pid()));
+        logFile = Files.createTempFile("logging-benchmark", ".log").toFile();
+
+        syncLogger = logger("sync", fileAppender("sync-file"));
+
+        final AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async");
+        async.setQueueSize(8192);
+        async.setIncludeCallerData(false);
+        async.addAppender(fileAppender("async-file"));
+        async.start();
+        asyncLogger = logger("async", async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void syncInfo() {
+        request(syncLogger, true);
+    }
+
+    @Benchmark
+    public void asyncInfo() {
+        request(asyncLogger, true);
+    }
+
+    @Benchmark
+    public void gatedDebug() {
+        request(syncLogger, false);
+    }
+
+    private static void request(final Logger logger, final boolean info) {
+        MDC.put("requestId", "5f0c3a9e12b47d68");
+        try {
+            if (info) {
+                logger.info("Initiating GET ALL PRODUCTS request");
+                logger.info("Fetching all products from repository");
+                logger.info("Fetched all products.");
+            } else {
+                logger.debug("Initiating GET ALL PRODUCTS request");
+                logger.debug("Fetching all products from repository");
+                logger.debug("Fetched all products.");
+            }
+        } finally {
+            MDC.remove("requestId");
+        }
+    }
+
+    private Logger logger(final String name, final Appender<ILoggingEvent> appender) {
+        final Logger logger = context.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(final String name) {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        final FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(logFile.getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,53 @@
+package com.rest.benchmark;
+
+import com.rest.converter.PriceRounding;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former DecimalFormat format-then-parse rounding with {@link PriceRounding#toCents(double)}, which
+ * {@link com.rest.dto.Money#of(double)} uses, on a 100 item page of converted prices.
+ * <p>
+ * Run with {@code -prof gc} (default jmh.args) to see gc.alloc.rate.norm per page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceRoundingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final double[] pricesEur = new double[PAGE_SIZE];
+
+    private final double usdRate = 1.0823;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            pricesEur[i] = Math.round(random.nextDouble() * 100_000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public void decimalFormatPerProduct(final Blackhole blackhole) {
+        for (final double priceEur : pricesEur) {
+            final DecimalFormat df = new DecimalFormat("#.##");
+            blackhole.consume(Double.valueOf(df.format(priceEur * usdRate)));
+        }
+    }
+
+    @Benchmark
+    public void priceRounding(final Blackhole blackhole) {
+        for (final double priceEur : pricesEur) {
+            blackhole.consume(PriceRounding.toCents(priceEur * usdRate));
+        }
+    }
+}
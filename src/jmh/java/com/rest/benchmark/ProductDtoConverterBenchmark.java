@@ -0,0 +1,49 @@
+package com.rest.benchmark;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.converter.RateTable;
+import com.rest.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion of one listing page, with USD only and with two extra currencies.
+ * <p>
+ * Run with {@code -prof gc} (default jmh.args) to see gc.alloc.rate.norm per page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDtoConverterBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ProductDtoConverter converter = new ProductDtoConverter();
+
+    private final Double usdRate = BenchmarkData.RATES.findRate("USD");
+
+    private final RateTable.Selection currencies = BenchmarkData.RATES.select(List.of("GBP", "CHF"));
+
+    private List<Product> page;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkData.products(pageSize, true);
+    }
+
+    @Benchmark
+    public Object usdOnly() {
+        return converter.convertToDto(page, usdRate, RateTable.Selection.NONE);
+    }
+
+    @Benchmark
+    public Object withCurrencies() {
+        return converter.convertToDto(page, usdRate, currencies);
+    }
+}
@@ -0,0 +1,55 @@
+package com.rest.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ProductQueryPlan;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request query construction of GET /api/products: filter JSON and sort parsing, plan lookup and parameter binding,
+ * with plans taken from a cache as in ProductRepositoryImpl or compiled on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductFilterBenchmark {
+
+    @Param({
+            "{}",
+            "{\"isAvailable\":true}",
+            "{\"name\":{\"prefix\":\"mil\"},\"priceEur\":{\"gte\":1,\"lt\":50},\"code\":{\"in\":[\"B000000001\",\"B000000002\"]}}"
+    })
+    private String filter;
+
+    private final String sort = "priceEur,desc";
+
+    private final Cache<ProductQueryPlan.Key, ProductQueryPlan> plans = Caffeine.newBuilder().maximumSize(500).build();
+
+    @Benchmark
+    public void cachedPlan(final Blackhole blackhole) {
+        final ProductFilter filters = ProductFilter.parse(filter);
+        final Pageable pageable = PageRequest.of(0, 20, ProductCursor.parseSort(sort));
+        final ProductQueryPlan plan = plans.get(new ProductQueryPlan.Key(filters.shape(), pageable.getSort(), false), ProductQueryPlan::compile);
+        blackhole.consume(plan.getSelect());
+        blackhole.consume(plan.selectParameters(filters, null));
+    }
+
+    @Benchmark
+    public void compiledPlan(final Blackhole blackhole) {
+        final ProductFilter filters = ProductFilter.parse(filter);
+        final Pageable pageable = PageRequest.of(0, 20, ProductCursor.parseSort(sort));
+        final ProductQueryPlan plan = ProductQueryPlan.compile(new ProductQueryPlan.Key(filters.shape(), pageable.getSort(), false));
+        blackhole.consume(plan.getSelect());
+        blackhole.consume(plan.selectParameters(filters, null));
+    }
+}
@@ -0,0 +1,88 @@
+package com.rest.benchmark;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.repository.ProductRepository;
+import com.rest.service.ProductService;
+import com.rest.web.response.ProductListing;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link ProductService#getAllProducts} against an embedded PostgreSQL, migrated by Liquibase and filled
+ * with {@link #ROWS} products. Covers filter parsing, the JPA query, counting and DTO conversion, but no HTTP.
+ * <p>
+ * HNB is pointed at a closed port, so prices are converted with the fallback rate. The query cache is off by default
+ * so every invocation reaches the database; {@code -p queryCache=true} measures cached listings instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"false"})
+    private boolean queryCache;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductService productService;
+
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(SpringRestAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + queryCache,
+                        "--hnb.client.base-url=http://localhost:9",
+                        "--hnb.rates.cold-retry-interval=P1D",
+                        "--logging.level.com.rest=WARN");
+        final ProductRepository productRepository = context.getBean(ProductRepository.class);
+        productRepository.insertAll(BenchmarkData.products(ROWS, false));
+        productRepository.analyze();
+        productService = context.getBean(ProductService.class);
+        cursor = productService.getAllProducts(0, 20, "name", "{}", null, null, ProductService.TotalCount.NONE)
+                .response().getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public ProductListing firstPage() {
+        return productService.getAllProducts(0, 20, "name", "{}", null, null, ProductService.TotalCount.NONE);
+    }
+
+    @Benchmark
+    public ProductListing nextPageByCursor() {
+        return productService.getAllProducts(0, 20, "name", "{}", null, cursor, ProductService.TotalCount.NONE);
+    }
+
+    @Benchmark
+    public ProductListing filteredPageWithTotal() {
+        return productService.getAllProducts(0, 20, "priceEur,desc", "{\"name\":{\"prefix\":\"Lamp\"},\"isAvailable\":true}",
+                null, null, ProductService.TotalCount.EXACT);
+    }
+
+    @Benchmark
+    public ProductListing deepOffsetPage() {
+        return productService.getAllProducts(250, 20, "name", "{}", null, null, ProductService.TotalCount.NONE);
+    }
+}
@@ -0,0 +1,111 @@
+package com.rest.benchmark;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.converter.ProductDtoConverter;
+import com.rest.converter.RateTable;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ProductQueryPlan;
+import com.rest.repository.ProductRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One listing page read as managed entities and converted to DTOs (the former listing path, kept here as baseline)
+ * against the same page projected straight into DTOs in a read-only transaction. Runs against an embedded PostgreSQL with {@link #ROWS}
+ * products and the query cache off, so both read every row from the database.
+ * <p>
+ * Run with {@code -prof gc} (default jmh.args) and compare gc.alloc.rate.norm: the entity path also allocates
+ * persistence context entries, loaded state snapshots and second-level cache entries for every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private ProductDtoConverter productDtoConverter;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private Pageable pageable;
+
+    private ProductQueryPlan plan;
+
+    private final Double usdRate = BenchmarkData.RATES.findRate("USD");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(SpringRestAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--hnb.client.base-url=http://localhost:9",
+                        "--hnb.rates.cold-retry-interval=P1D",
+                        "--logging.level.com.rest=WARN");
+        productRepository = context.getBean(ProductRepository.class);
+        productRepository.insertAll(BenchmarkData.products(ROWS, false));
+        productRepository.analyze();
+        productDtoConverter = context.getBean(ProductDtoConverter.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        pageable = PageRequest.of(0, pageSize, ProductCursor.parseSort("name"));
+        plan = ProductQueryPlan.compile(new ProductQueryPlan.Key(ProductFilter.NONE.shape(), pageable.getSort(), false));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    /**
+     * Entity listing as the repository ran it before the projection: same JPQL plan, entities loaded into a
+     * persistence context that lives for the call, then copied into DTOs
+     */
+    @Benchmark
+    public List<ProductDto> entityPage() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final TypedQuery<Product> query = entityManager.createQuery(plan.getSelect(), Product.class);
+            plan.selectParameters(ProductFilter.NONE, null).forEach(query::setParameter);
+            final List<Product> rows = query.setMaxResults(pageSize + 1).getResultList();
+            return productDtoConverter.convertToDto(rows.subList(0, Math.min(pageSize, rows.size())), usdRate, RateTable.Selection.NONE);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<ProductDto> projectionPage() {
+        return productDtoConverter.addPrices(productRepository.findDtoSlice(ProductFilter.NONE, null, pageable).getContent(),
+                usdRate, RateTable.Selection.NONE);
+    }
+}
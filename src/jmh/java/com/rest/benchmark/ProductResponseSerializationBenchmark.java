@@ -0,0 +1,51 @@
+package com.rest.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.ProductDto;
+import com.rest.web.response.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a listing response with the same ObjectMapper defaults Spring Boot applies.
+ * <p>
+ * Run with {@code -prof gc} (default jmh.args) to see gc.alloc.rate.norm per response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductResponseSerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int products;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ProductResponse response;
+
+    @Setup
+    public void setUp() {
+        final List<ProductDto> dtos = new ProductDtoConverter().convertToDto(BenchmarkData.products(products, true),
+                BenchmarkData.RATES.findRate("USD"), BenchmarkData.RATES.select(List.of("GBP")));
+        response = new ProductResponse();
+        response.setProducts(dtos);
+        response.setHasNext(true);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws Exception {
+        return objectMapper.writeValueAsString(response);
+    }
+}
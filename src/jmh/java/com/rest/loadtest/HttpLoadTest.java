@@ -0,0 +1,275 @@
+package com.rest.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator with an optional latency injecting TCP proxy standing in for a slow upstream.
+ * <p>
+ * Every virtual client sends one request at a time, picking one of the given URLs at random; {@code {n}} in a URL is
+ * replaced by a random number below 1000000 so query caches can be bypassed. Results per URL (throughput, errors,
+ * latency percentiles) are printed and written as JSON.
+ * <p>
+ * Usage ({@code mvn -P benchmark -DskipTests test-compile} first):
+ * <pre>
+ * java -cp target/test-classes com.rest.loadtest.HttpLoadTest [--concurrency 400] [--warmup 10] [--duration 30]
+ *      [--proxy 15432:localhost:5432:20] [--out target/loadtest-result.json] URL...
+ * </pre>
+ * {@code --proxy listenPort:host:port:delayMillis} forwards listenPort to host:port and delays every chunk coming
+ * back from host:port; point the application at listenPort to make that upstream slow. Without URLs only the proxy
+ * runs, so it can be started before the application.
+ */
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {}
+
+    public static void main(final String[] args) throws Exception {
+        int concurrency = 400;
+        int warmupSeconds = 10;
+        int durationSeconds = 30;
+        String proxy = null;
+        Path out = Path.of("target", "loadtest-result.json");
+        final List<String> urls = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "--duration" -> durationSeconds = Integer.parseInt(args[++i]);
+                case "--proxy" -> proxy = args[++i];
+                case "--out" -> out = Path.of(args[++i]);
+                default -> urls.add(args[i]);
+            }
+        }
+        if (proxy != null) {
+            final String[] parts = proxy.split(":");
+            LatencyProxy.start(Integer.parseInt(parts[0]), parts[1], Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+            if (urls.isEmpty()) {
+                System.out.println("Proxy running, stop with Ctrl+C.");
+                Thread.currentThread().join();
+            }
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one URL is required.");
+        }
+
+        final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        final Target[] targets = urls.stream().map(Target::new).toArray(Target[]::new);
+
+        final Run warmup = new Run(client, targets, concurrency);
+        warmup.runFor(warmupSeconds);
+        Arrays.stream(targets).forEach(Target::reset);
+
+        final Run measured = new Run(client, targets, concurrency);
+        final long start = System.nanoTime();
+        measured.runFor(durationSeconds);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        final StringBuilder json = new StringBuilder("{\"concurrency\":").append(concurrency)
+                .append(",\"durationSeconds\":").append(String.format(Locale.ROOT, "%.1f", seconds))
+                .append(",\"targets\":[");
+        long total = 0;
+        for (int i = 0; i < targets.length; i++) {
+            final Target target = targets[i];
+            total += target.completed.get();
+            System.out.println(target.summary(seconds));
+            json.append(i == 0 ? "" : ",").append(target.json(seconds));
+        }
+        json.append("],\"throughput\":").append(String.format(Locale.ROOT, "%.1f", total / seconds)).append('}');
+        System.out.printf(Locale.ROOT, "total: %.1f req/s%n", total / seconds);
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        Files.writeString(out, json.append('\n'), StandardCharsets.UTF_8);
+        System.exit(0);
+    }
+
+    /**
+     * One URL pattern with its latency samples
+     */
+    private static final class Target {
+
+        private final String url;
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private volatile ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+
+        Target(final String url) {
+            this.url = url;
+        }
+
+        URI next() {
+            return URI.create(url.replace("{n}", Integer.toString(ThreadLocalRandom.current().nextInt(1_000_000))));
+        }
+
+        void record(final long startNanos, final boolean ok) {
+            latenciesMicros.add((System.nanoTime() - startNanos) / 1000);
+            completed.incrementAndGet();
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            completed.set(0);
+            errors.set(0);
+            latenciesMicros = new ConcurrentLinkedQueue<>();
+        }
+
+        private long[] sorted() {
+            final long[] values = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(values);
+            return values;
+        }
+
+        private static double percentileMillis(final long[] sorted, final double percentile) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1000.0;
+        }
+
+        String summary(final double seconds) {
+            final long[] sorted = sorted();
+            return String.format(Locale.ROOT, "%s: %.1f req/s, %d errors, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    url, completed.get() / seconds, errors.get(), percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.9),
+                    percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        }
+
+        String json(final double seconds) {
+            final long[] sorted = sorted();
+            return String.format(Locale.ROOT, "{\"url\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Millis\":%.1f,\"p90Millis\":%.1f,\"p99Millis\":%.1f,\"maxMillis\":%.1f}",
+                    url.replace("\\", "\\\\").replace("\"", "\\\""), completed.get(), errors.get(), completed.get() / seconds,
+                    percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.9), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        }
+    }
+
+    /**
+     * Clients each chaining one request after another until the deadline
+     */
+    private static final class Run {
+
+        private final HttpClient client;
+
+        private final Target[] targets;
+
+        private final int concurrency;
+
+        private volatile long deadline;
+
+        Run(final HttpClient client, final Target[] targets, final int concurrency) {
+            this.client = client;
+            this.targets = targets;
+            this.concurrency = concurrency;
+        }
+
+        void runFor(final int seconds) {
+            deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            final CompletableFuture<?>[] clients = new CompletableFuture<?>[concurrency];
+            for (int i = 0; i < concurrency; i++) {
+                clients[i] = loop();
+            }
+            CompletableFuture.allOf(clients).join();
+        }
+
+        private CompletableFuture<Void> loop() {
+            if (System.nanoTime() >= deadline) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final Target target = targets[ThreadLocalRandom.current().nextInt(targets.length)];
+            final HttpRequest request = HttpRequest.newBuilder(target.next()).timeout(Duration.ofSeconds(60)).build();
+            final long start = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        target.record(start, error == null && response.statusCode() < 400);
+                        return null;
+                    })
+                    .thenCompose(ignored -> loop());
+        }
+    }
+
+    /**
+     * TCP forwarder delaying every chunk sent back by the upstream
+     */
+    static final class LatencyProxy {
+
+        private LatencyProxy() {}
+
+        static void start(final int listenPort, final String host, final int port, final long delayMillis) throws IOException {
+            final ServerSocket server = new ServerSocket();
+            server.bind(new InetSocketAddress("localhost", listenPort));
+            daemon("latency-proxy", () -> {
+                while (!server.isClosed()) {
+                    try {
+                        final Socket downstream = server.accept();
+                        final Socket upstream = new Socket(host, port);
+                        downstream.setTcpNoDelay(true);
+                        upstream.setTcpNoDelay(true);
+                        daemon("latency-proxy-up", () -> pump(downstream, upstream, 0));
+                        daemon("latency-proxy-down", () -> pump(upstream, downstream, delayMillis));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+
+        private static void pump(final Socket from, final Socket to, final long delayMillis) {
+            final byte[] buffer = new byte[16 * 1024];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (delayMillis > 0) {
+                        Thread.sleep(delayMillis);
+                    }
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // connection closed by either side
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }
+
+        private static void closeQuietly(final Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+
+        private static void daemon(final String name, final Runnable task) {
+            final Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.rest.app;
+
+import com.rest.service.ProductExportService;
+import com.rest.service.ProductLoadService;
+import com.rest.web.response.ProductLoadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command line entry point of the COPY bulk loader
+ * <p>
+ * Usage: {@code java -jar app.jar --products.load.file=products.csv [--products.load.format=csv|ndjson]}
+ * <p>
+ * The format defaults to the file extension (.ndjson and .jsonl are NDJSON, anything else CSV). The application
+ * starts without web server, loads the file and exits with status 0 on success and 1 on failure.
+ *
+ * @see ProductLoadService For staging and merge rules
+ */
+@Component
+@ConditionalOnProperty(ProductLoadRunner.LOAD_FILE_PROPERTY)
+public class ProductLoadRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    /**
+     * Property naming the file to load
+     */
+    public static final String LOAD_FILE_PROPERTY = "products.load.file";
+
+    @Autowired
+    private ProductLoadService productLoadService;
+
+    @Value("${" + LOAD_FILE_PROPERTY + "}")
+    private Path file;
+
+    @Value("${products.load.format:}")
+    private String format;
+
+    private int exitCode = 1;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLoadRunner.class);
+
+    /**
+     * @param args Command line arguments
+     * @return True if the arguments ask for a bulk load instead of serving requests
+     */
+    public static boolean isRequested(final String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + LOAD_FILE_PROPERTY + "="));
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException {
+        final ProductExportService.Format loadFormat = format.isBlank() ? formatOf(file) : ProductExportService.Format.of(format);
+        log.info("Loading {} as {}.", file, loadFormat);
+        final ProductLoadResponse report;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            report = productLoadService.load(input, loadFormat);
+        }
+        if (report.getErrors().isEmpty()) {
+            exitCode = 0;
+        } else {
+            report.getErrors().forEach(error -> log.error("{}", error));
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private static ProductExportService.Format formatOf(final Path file) {
+        final String name = file.getFileName().toString();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? ProductExportService.Format.NDJSON : ProductExportService.Format.CSV;
+    }
+}
@@ -2,25 +2,26 @@ package com.rest.app;
 
 import jakarta.persistence.Entity;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @ComponentScan("com.rest")
 @EntityScan("com.rest.entity")
 @EnableJpaRepositories("com.rest.repository")
+@EnableScheduling
 @SpringBootApplication
 public class SpringRestAppApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringRestAppApplication.class, args);
-	}
-
-	@Bean
-	public RestTemplate getRestTemplate() {
-		return new RestTemplate();
+		SpringApplication application = new SpringApplication(SpringRestAppApplication.class);
+		if (ProductLoadRunner.isRequested(args)) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
 	}
 }
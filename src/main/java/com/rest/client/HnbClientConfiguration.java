@@ -0,0 +1,139 @@
+package com.rest.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound client layer for HNB API.
+ * <p>
+ * Builds the {@link RestTemplate} used by {@link com.rest.service.UsdConvertService} on top of:
+ * - Pooled keep-alive Apache HttpClient with connect, response and pool lease timeouts
+ * - Circuit breaker and bulkhead applied by {@link HnbResilienceInterceptor}
+ * - Micrometer metrics for breaker state, bulkhead usage and call latency
+ *
+ * @see HnbClientProperties For tunable settings
+ */
+@Configuration
+@EnableConfigurationProperties(HnbClientProperties.class)
+public class HnbClientConfiguration {
+
+    /**
+     * Name of circuit breaker and bulkhead instances, used as metric tag
+     */
+    public static final String HNB = "hnb";
+
+    /**
+     * Pooled HTTP client, closed together with the application context
+     * @param properties HNB client settings
+     * @return Apache HttpClient with keep-alive connection pool
+     */
+    @Bean
+    public CloseableHttpClient hnbHttpClient(final HnbClientProperties properties) {
+        final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(properties.getKeepAlive()))
+                .evictIdleConnections(TimeValue.of(properties.getKeepAlive()))
+                .build();
+    }
+
+    /**
+     * @param properties HNB client settings
+     * @return Registry holding the HNB circuit breaker
+     */
+    @Bean
+    public CircuitBreakerRegistry hnbCircuitBreakerRegistry(final HnbClientProperties properties) {
+        final HnbClientProperties.CircuitBreaker settings = properties.getCircuitBreaker();
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDuration())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .build());
+    }
+
+    /**
+     * @param properties HNB client settings
+     * @return Registry holding the HNB bulkhead
+     */
+    @Bean
+    public BulkheadRegistry hnbBulkheadRegistry(final HnbClientProperties properties) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getBulkhead().getMaxWait())
+                .build());
+    }
+
+    /**
+     * Exposes resilience4j.circuitbreaker.* metrics
+     */
+    @Bean
+    public TaggedCircuitBreakerMetrics hnbCircuitBreakerMetrics(final CircuitBreakerRegistry hnbCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(hnbCircuitBreakerRegistry);
+    }
+
+    /**
+     * Exposes resilience4j.bulkhead.* metrics
+     */
+    @Bean
+    public TaggedBulkheadMetrics hnbBulkheadMetrics(final BulkheadRegistry hnbBulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(hnbBulkheadRegistry);
+    }
+
+    /**
+     * REST client for HNB API communication
+     * @param hnbHttpClient Pooled HTTP client
+     * @param hnbCircuitBreakerRegistry Source of the HNB circuit breaker
+     * @param hnbBulkheadRegistry Source of the HNB bulkhead
+     * @param observationRegistry Records every call as http.client.requests
+     * @return RestTemplate with pooling, timeouts, failure isolation and metrics
+     */
+    @Bean
+    public RestTemplate getRestTemplate(final CloseableHttpClient hnbHttpClient,
+                                        final CircuitBreakerRegistry hnbCircuitBreakerRegistry,
+                                        final BulkheadRegistry hnbBulkheadRegistry,
+                                        final ObservationRegistry observationRegistry) {
+        final CircuitBreaker circuitBreaker = hnbCircuitBreakerRegistry.circuitBreaker(HNB);
+        final Bulkhead bulkhead = hnbBulkheadRegistry.bulkhead(HNB);
+
+        final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(hnbHttpClient));
+        restTemplate.getInterceptors().add(new HnbResilienceInterceptor(circuitBreaker, bulkhead));
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
+    }
+}
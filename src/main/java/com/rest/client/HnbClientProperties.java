@@ -0,0 +1,250 @@
+package com.rest.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outbound HTTP client settings for HNB API, bound from {@code hnb.client.*} properties.
+ * <p>
+ * Groups:
+ * - Connection pool and timeouts of the underlying Apache HttpClient
+ * - Circuit breaker isolating HNB failures from request threads
+ * - Bulkhead limiting concurrent HNB calls
+ */
+@ConfigurationProperties(prefix = "hnb.client")
+public class HnbClientProperties {
+
+    /** Base URL of HNB API, can point to a local stub server */
+    private String baseUrl = "https://api.hnb.hr";
+
+    /** Maximum time to establish a TCP/TLS connection */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Maximum time to wait for response data */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /** Maximum time to wait for a free pooled connection */
+    private Duration connectionRequestTimeout = Duration.ofMillis(500);
+
+    /** Maximum number of pooled connections */
+    private int maxConnections = 20;
+
+    /** How long an idle connection is kept alive for reuse */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Circuit breaker settings */
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /** Bulkhead settings */
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * @return Base URL of HNB API
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @param baseUrl Base URL of HNB API
+     */
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @return Connect timeout
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param connectTimeout Connect timeout
+     */
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * @return Response timeout
+     */
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    /**
+     * @param responseTimeout Response timeout
+     */
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    /**
+     * @return Timeout for leasing a pooled connection
+     */
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * @param connectionRequestTimeout Timeout for leasing a pooled connection
+     */
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    /**
+     * @return Maximum pooled connections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections Maximum pooled connections
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return Idle connection keep-alive
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @param keepAlive Idle connection keep-alive
+     */
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * @return Circuit breaker settings
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return Bulkhead settings
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * Circuit breaker settings ({@code hnb.client.circuit-breaker.*})
+     */
+    public static class CircuitBreaker {
+
+        /** Failure percentage that opens the circuit */
+        private float failureRateThreshold = 50;
+
+        /** Calls slower than this count as slow calls */
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        /** Slow call percentage that opens the circuit */
+        private float slowCallRateThreshold = 80;
+
+        /** Number of calls in the sliding window */
+        private int slidingWindowSize = 20;
+
+        /** Minimum calls before failure rate is evaluated */
+        private int minimumNumberOfCalls = 5;
+
+        /** How long the circuit stays open before probing HNB again */
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+
+        /** Number of probe calls allowed in half-open state */
+        private int permittedCallsInHalfOpenState = 2;
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public Duration getWaitInOpenState() {
+            return waitInOpenState;
+        }
+
+        public void setWaitInOpenState(Duration waitInOpenState) {
+            this.waitInOpenState = waitInOpenState;
+        }
+
+        public int getPermittedCallsInHalfOpenState() {
+            return permittedCallsInHalfOpenState;
+        }
+
+        public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        }
+    }
+
+    /**
+     * Bulkhead settings ({@code hnb.client.bulkhead.*})
+     */
+    public static class Bulkhead {
+
+        /** Maximum concurrent HNB calls */
+        private int maxConcurrentCalls = 10;
+
+        /** How long a caller may wait for a free slot before being rejected */
+        private Duration maxWait = Duration.ZERO;
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.rest.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking outbound client for HNB API, used by the reactive stack.
+ * <p>
+ * Builds the {@link WebClient} used by {@link com.rest.service.ReactiveUsdConvertService} on top of:
+ * - Reactor Netty connection pool sized and timed out by the same {@link HnbClientProperties} as the blocking client
+ * - The circuit breaker and bulkhead instances of {@link HnbClientConfiguration}, so both clients share state and metrics
+ *
+ * @see HnbClientConfiguration For the blocking RestTemplate
+ */
+@Configuration
+@Profile("reactive")
+public class HnbReactiveClientConfiguration {
+
+    /**
+     * Pooled keep-alive connections to HNB, released together with the application context
+     * @param properties HNB client settings
+     * @return Connection pool
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider hnbConnectionProvider(final HnbClientProperties properties) {
+        return ConnectionProvider.builder(HnbClientConfiguration.HNB)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .build();
+    }
+
+    /**
+     * Non-blocking client for HNB API communication
+     * @param builder Boot configured builder with the application's JSON codecs
+     * @param hnbConnectionProvider Connection pool
+     * @param properties HNB client settings
+     * @param hnbCircuitBreakerRegistry Source of the HNB circuit breaker
+     * @param hnbBulkheadRegistry Source of the HNB bulkhead
+     * @return WebClient with pooling, timeouts and failure isolation
+     */
+    @Bean
+    public WebClient hnbWebClient(final WebClient.Builder builder,
+                                  final ConnectionProvider hnbConnectionProvider,
+                                  final HnbClientProperties properties,
+                                  final CircuitBreakerRegistry hnbCircuitBreakerRegistry,
+                                  final BulkheadRegistry hnbBulkheadRegistry) {
+        final HttpClient httpClient = HttpClient.create(hnbConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+
+        return builder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(resilience(hnbCircuitBreakerRegistry.circuitBreaker(HnbClientConfiguration.HNB),
+                        hnbBulkheadRegistry.bulkhead(HnbClientConfiguration.HNB)))
+                .build();
+    }
+
+    /**
+     * Runs every exchange inside the bulkhead and circuit breaker
+     * <p>
+     * Same rules as {@link HnbResilienceInterceptor}: IO errors and 5xx responses are failures,
+     * a full bulkhead or an open circuit fail the call without touching the network.
+     * @param circuitBreaker Breaker guarding HNB availability
+     * @param bulkhead Concurrency limit for HNB calls
+     * @return Filter applying both
+     */
+    static ExchangeFilterFunction resilience(final CircuitBreaker circuitBreaker, final Bulkhead bulkhead) {
+        return (request, next) -> next.exchange(request)
+                .flatMap(HnbReactiveClientConfiguration::failOnServerError)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private static Mono<ClientResponse> failOnServerError(final ClientResponse response) {
+        return response.statusCode().is5xxServerError() ? response.createException().flatMap(Mono::error) : Mono.just(response);
+    }
+}
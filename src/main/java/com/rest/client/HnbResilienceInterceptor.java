@@ -0,0 +1,128 @@
+package com.rest.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every outbound HNB call in a bulkhead and a circuit breaker.
+ * <p>
+ * Behaviour:
+ * - Rejects the call with {@link BulkheadFullException} when too many HNB calls are in flight
+ * - Rejects the call with {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} while the circuit is open
+ * - Records IO errors and 5xx responses as failures, slow responses as slow calls
+ * - Records IO errors while reading the status like IO errors of the call and closes the response
+ * - Holds the bulkhead slot until the response body is closed
+ */
+public class HnbResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    /**
+     * @param circuitBreaker Breaker guarding HNB availability
+     * @param bulkhead Concurrency limit for HNB calls
+     */
+    public HnbResilienceInterceptor(final CircuitBreaker circuitBreaker, final Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body, final ClientHttpRequestExecution execution) throws IOException {
+        if (!bulkhead.tryAcquirePermission()) {
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+        boolean released = false;
+        try {
+            circuitBreaker.acquirePermission();
+            final long start = System.nanoTime();
+            ClientHttpResponse response = null;
+            final HttpStatusCode status;
+            try {
+                response = execution.execute(request, body);
+                status = response.getStatusCode();
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                if (response != null) {
+                    response.close();
+                }
+                throw e;
+            }
+
+            final long duration = System.nanoTime() - start;
+            if (status.is5xxServerError()) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new HttpServerErrorException(status));
+            } else {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+            released = true;
+            return new BulkheadReleasingResponse(response, bulkhead);
+        } finally {
+            if (!released) {
+                bulkhead.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Response decorator releasing the bulkhead slot once the body has been consumed and closed
+     */
+    private static final class BulkheadReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+
+        private final Bulkhead bulkhead;
+
+        private boolean closed;
+
+        private BulkheadReleasingResponse(final ClientHttpResponse delegate, final Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    bulkhead.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.rest.controller;
+
+import com.rest.service.ProductExportService;
+import com.rest.service.ProductLoadService;
+import com.rest.web.response.ProductLoadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Administrative REST API for catalogue maintenance
+ * <p>
+ * Endpoints:
+ * - POST /admin/products/load: Bulk load CSV or NDJSON with PostgreSQL COPY, merged on code
+ * - GET /admin/products/load: Progress of the running or last load
+ * <p>
+ * Not protected by the application itself, expose only on internal networks.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@Profile("!reactive")
+public class ProductAdminController {
+
+    /** Endpoint: /admin/products/load
+     * Starts a bulk load (POST) or reports its progress (GET) */
+    public static final String LOAD_URL = "/products/load";
+
+    /**
+     * Service layer dependency for COPY based loads
+     */
+    @Autowired
+    private ProductLoadService productLoadService;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductAdminController.class);
+
+    /**
+     * POST /admin/products/load
+     * 
+     * @param contentType text/csv (header row required) or application/x-ndjson
+     * @param input Products to load
+     * @return 200 OK with merge counts once committed
+     *         400 Load failed and was rolled back, or another load is running
+     * @see ProductLoadService For staging and merge rules
+     */
+    @RequestMapping(value = LOAD_URL, method = RequestMethod.POST, consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductLoadResponse> loadProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) final MediaType contentType,
+                                                            final InputStream input) {
+        log.info("Received bulk load request ({})", contentType);
+        final ProductExportService.Format format = MediaType.APPLICATION_NDJSON.includes(contentType)
+                ? ProductExportService.Format.NDJSON : ProductExportService.Format.CSV;
+        ProductLoadResponse loadResponse = productLoadService.load(input, format);
+
+        if (!loadResponse.getErrors().isEmpty()) {
+            return new ResponseEntity<>(loadResponse, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(loadResponse, HttpStatus.OK);
+    }
+
+    /**
+     * GET /admin/products/load
+     * 
+     * @return 200 OK with phase and row counts of the running or last load
+     *         404 No load was started since application start
+     */
+    @RequestMapping(value = LOAD_URL, method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductLoadResponse> getLoadProgress() {
+        ProductLoadResponse loadResponse = productLoadService.getLastLoad();
+
+        if (loadResponse == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(loadResponse, HttpStatus.OK);
+    }
+}
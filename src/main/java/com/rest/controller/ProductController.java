@@ -1,29 +1,56 @@
 package com.rest.controller;
 
 import com.rest.dto.ProductDto;
+import com.rest.dto.ProductPatch;
+import com.rest.filter.ProductFilter;
+import com.rest.service.ProductExportService;
+import com.rest.service.ProductImportService;
 import com.rest.service.ProductService;
+import com.rest.service.ProductUpdateService;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductChange;
+import com.rest.web.response.ProductImportResponse;
+import com.rest.web.response.ProductListing;
 import com.rest.web.response.ProductResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.util.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * REST API for product management with pagination and filtering
  * <p>
  * Endpoints:
  * - GET /products: Retrieve paginated products with optional filtering
- * - GET /products/{id}: Get single product by ID
+ * - GET /products/{id}: Get single product by ID, with ETag / If-None-Match support
  * - POST /products: Create new product
+ * - PUT /product/{id}: Replace a product, PATCH /product/{id}: Change some of its fields
+ * - DELETE /product/{id}: Remove a product
+ * - PATCH /products: Change many products at once
+ * - POST /products/import: Create many products from JSON array or NDJSON
+ * - GET /products/export: Stream all products as NDJSON or CSV
  */
 @RestController
 @RequestMapping("/api")
+@Profile("!reactive")
 public class ProductController {
 
     /**
@@ -32,6 +59,36 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    /**
+     * Bulk import of products
+     */
+    @Autowired
+    private ProductImportService productImportService;
+
+    /**
+     * Streaming catalogue export
+     */
+    @Autowired
+    private ProductExportService productExportService;
+
+    /**
+     * Optimistically locked changes and deletes
+     */
+    @Autowired
+    private ProductUpdateService productUpdateService;
+
+    /**
+     * Pre-serialized single product responses
+     */
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    /**
+     * Time an export may stream before the container ends it; other async requests keep the container default
+     */
+    @Value("${products.export.request-timeout:PT30M}")
+    private Duration exportTimeout = Duration.ofMinutes(30);
+
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
 
     /**
@@ -39,45 +96,104 @@ public class ProductController {
      * 
      * @param page Page number (default: 0)
      * @param pageSize Items per page (1-100, default: 10)
-     * @param sort Sort field and direction (format: field,asc|desc)
-     * @param filter JSON filter criteria (e.g. {"name":"widget"})
-     * @return 200 OK with products and X-Total-Items header
+     * @param sort Sort field and direction (format: field,asc|desc), taken from the cursor when after is given
+     * @param filter JSON filter criteria (e.g. {"name":"widget"} or {"priceEur":{"gte":1,"lt":5}}), 400 with error if invalid
+     * @param currency Additional price currencies (e.g. GBP,CHF)
+     * @param after Cursor from nextCursor of the previous response, replaces page for constant-time deep paging
+     * @param withTotal true for exact totalItems header, estimate for totalItemsEstimate header on unfiltered listings (default: no count)
+     * @return 200 OK with products, hasNext flag and optional total header
+     *         400 Unknown currency or invalid filter, sort or cursor
      *         404 No products found
+     *         500 Query failed
      * @see ProductService#getAllProducts For business logic
      */
     @RequestMapping(value = ProductResponse.GET_ALL_URL, method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductResponse> getAllProducts(@RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
                                                            @RequestParam(value = "per_page", required = false, defaultValue = "10") final Integer pageSize,
                                                            @RequestParam(value = "sort", required = false, defaultValue = "name") final String sort,
-                                                           @RequestParam(value = "filter", required = false, defaultValue = "{}") final String filter) {
-        log.info("Initiating GET ALL PRODUCTS request");
-        Pair<ProductResponse, Long> response = productService.getAllProducts(page, pageSize, sort, filter);
+                                                           @RequestParam(value = "filter", required = false, defaultValue = "{}") final String filter,
+                                                           @RequestParam(value = "currency", required = false) final String currency,
+                                                           @RequestParam(value = "after", required = false) final String after,
+                                                           @RequestParam(value = "withTotal", required = false, defaultValue = "false") final String withTotal) {
+        log.debug("Initiating GET ALL PRODUCTS request");
+        final ProductService.TotalCount totalCount = ProductService.TotalCount.of(withTotal);
+        return toResponse(productService.getAllProducts(page, pageSize, sort, filter, currency, after, totalCount));
+    }
 
-        if (!response.getFirst().getErrors().isEmpty()) {
-            return new ResponseEntity<>(response.getFirst(), HttpStatus.NOT_FOUND);
+    /**
+     * GET /products/export
+     * 
+     * @param format ndjson (default) or csv
+     * @param filter JSON filter criteria, same syntax as the listing (default: whole catalogue)
+     * @param webRequest Current request, its async timeout is raised to {@code products.export.request-timeout}
+     * @return 200 OK streaming products in id order with USD prices
+     *         400 Unknown format or invalid filter
+     * @see ProductExportService For cursor based streaming
+     */
+    @RequestMapping(value = ProductResponse.EXPORT_URL, method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "format", required = false, defaultValue = "ndjson") final String format,
+                                                                 @RequestParam(value = "filter", required = false, defaultValue = "{}") final String filter,
+                                                                 final NativeWebRequest webRequest) {
+        log.info("Initiating EXPORT PRODUCTS request");
+        final ProductExportService.Format exportFormat;
+        final ProductFilter filters;
+        try {
+            exportFormat = ProductExportService.Format.of(format);
+            filters = ProductFilter.parse(filter);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid export request: {}", e.getMessage());
+            final byte[] error = productJsonCache.serialize(new ProductResponse(Collections.singletonList(e.getMessage())));
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(out -> out.write(error));
         }
 
-        final HttpHeaders headers = new HttpHeaders();
-        headers.add("totalItems", String.valueOf(response.getSecond()));
-        return new ResponseEntity<>(response.getFirst(), headers, HttpStatus.OK);
+        final AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(exportTimeout.toMillis());
+        }
+        final StreamingResponseBody body = out -> productExportService.export(filters, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.getExtension()).build().toString())
+                .body(body);
     }
 
     /**
      * GET /products/{id}
      * 
      * @param id Product ID (must be > 0)
-     * @return 200 OK with product data
+     * @param ifNoneMatch ETag of a representation the client already holds
+     * @return 200 OK with product data and strong ETag, served from pre-serialized bytes when cached
+     *         304 Not Modified if the ETag matches
      *         404 Product not found
+     * @see ProductJsonCache For caching and invalidation
      */
     @RequestMapping(value = ProductResponse.GET_URL, method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable final long id) {
-        log.info("Processing GET PRODUCT request for ID: {}", id);
-        ProductResponse productResponse = productService.getProduct(id);
+    public ResponseEntity<byte[]> getProduct(@PathVariable final long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        log.debug("Processing GET PRODUCT request for ID: {}", id);
+        final String rateVersion = productJsonCache.currentRateVersion();
+        ProductJsonCache.Entry entry = productJsonCache.get(id, rateVersion);
 
-        if (!productResponse.getErrors().isEmpty()) {
-            return new ResponseEntity<>(productResponse, HttpStatus.NOT_FOUND);
+        if (entry == null) {
+            final long stamp = productJsonCache.stamp(id);
+            ProductResponse productResponse = productService.getProduct(id);
+            if (!productResponse.getErrors().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(productJsonCache.serialize(productResponse));
+            }
+            entry = productJsonCache.put(id, rateVersion, stamp, productResponse);
+        }
+
+        if (ProductJsonCache.matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).cacheControl(CacheControl.noCache()).build();
         }
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
     }
 
     /**
@@ -99,4 +215,127 @@ public class ProductController {
         }
         return new ResponseEntity<>(productResponse, HttpStatus.CREATED);
     }
+
+    /**
+     * PUT /product/{id}
+     * 
+     * @param id Product ID
+     * @param productDto Complete product data (JSON), with the version it is based on to reject lost updates
+     * @return 200 OK with the stored product and its new version
+     *         400 Invalid input/duplicate code
+     *         404 Product not found
+     *         409 Product was changed since the given version
+     * @apiNote Products are only created by POST, as ids come from the database sequence
+     */
+    @RequestMapping(value = ProductResponse.PUT_URL, method = RequestMethod.PUT, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductResponse> replaceProduct(@PathVariable final long id, @RequestBody @Valid final ProductDto productDto) {
+        log.info("Received PUT request for product {}", id);
+        return toResponse(productUpdateService.replaceProduct(id, productDto), HttpStatus.OK);
+    }
+
+    /**
+     * PATCH /product/{id}
+     * 
+     * @param id Product ID
+     * @param patch Fields to change (JSON), absent fields are kept; optional version it is based on
+     * @return 200 OK with the stored product and its new version
+     *         400 Invalid input/duplicate code
+     *         404 Product not found
+     *         409 Product was changed since the given version
+     */
+    @RequestMapping(value = ProductResponse.PATCH_URL, method = RequestMethod.PATCH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductResponse> patchProduct(@PathVariable final long id, @RequestBody final ProductPatch patch) {
+        log.info("Received PATCH request for product {}", id);
+        return toResponse(productUpdateService.patchProduct(id, patch), HttpStatus.OK);
+    }
+
+    /**
+     * PATCH /products
+     * 
+     * @param patches JSON array of changes, each with id and optional version
+     * @return 200 OK with all stored products and their new versions
+     *         400 Invalid input/duplicate code/too many changes
+     *         404 Some product not found
+     *         409 Some product was changed since its given version
+     * @apiNote All or nothing: a rejected change leaves every product as it was
+     */
+    @RequestMapping(value = ProductResponse.PATCH_ALL_URL, method = RequestMethod.PATCH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductResponse> patchProducts(@RequestBody final List<ProductPatch> patches) {
+        log.info("Received batch PATCH request for {} product(s)", patches.size());
+        return toResponse(productUpdateService.patchProducts(patches), HttpStatus.OK);
+    }
+
+    /**
+     * DELETE /product/{id}
+     * 
+     * @param id Product ID
+     * @param version Version the client last read, omitted to delete unconditionally
+     * @return 204 No Content once deleted
+     *         404 Product not found
+     *         409 Product was changed since the given version
+     */
+    @RequestMapping(value = ProductResponse.DELETE_URL, method = RequestMethod.DELETE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductResponse> deleteProduct(@PathVariable final long id,
+                                                         @RequestParam(value = "version", required = false) final Long version) {
+        log.info("Received DELETE request for product {}", id);
+        return toResponse(productUpdateService.deleteProduct(id, version), HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * POST /products/import
+     * 
+     * @param input JSON array of products or NDJSON stream with one product per line
+     * @return 200 OK with imported and rejected counts and per row errors
+     *         400 Malformed input, rows before it are still imported
+     * @consumes application/json, application/x-ndjson
+     * @produces application/json
+     * @see ProductImportService For chunking and batching
+     */
+    @RequestMapping(value = ProductResponse.IMPORT_URL, method = RequestMethod.POST,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportResponse> importProducts(final InputStream input) {
+        log.info("Received product import request");
+        ProductImportResponse importResponse = productImportService.importProducts(input);
+
+        if (!importResponse.getErrors().isEmpty()) {
+            return new ResponseEntity<>(importResponse, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(importResponse, HttpStatus.OK);
+    }
+
+    /**
+     * @param listing Outcome of a listing
+     * @return Response with the status matching the outcome and the total header if counted
+     */
+    private static ResponseEntity<ProductResponse> toResponse(final ProductListing listing) {
+        final HttpStatus status = switch (listing.outcome()) {
+            case FOUND -> HttpStatus.OK;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case INVALID -> HttpStatus.BAD_REQUEST;
+            case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        final HttpHeaders headers = new HttpHeaders();
+        if (status == HttpStatus.OK && listing.hasTotal()) {
+            headers.add(listing.estimated() ? "totalItemsEstimate" : "totalItems", String.valueOf(listing.totalItems()));
+        }
+        return new ResponseEntity<>(listing.response(), headers, status);
+    }
+
+    /**
+     * @param change Outcome of a PUT, PATCH or DELETE
+     * @param applied Status of an applied change
+     * @return Response with the status matching the outcome, without body for 204
+     */
+    private static ResponseEntity<ProductResponse> toResponse(final ProductChange change, final HttpStatus applied) {
+        final HttpStatus status = switch (change.outcome()) {
+            case APPLIED -> applied;
+            case INVALID -> HttpStatus.BAD_REQUEST;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case CONFLICT -> HttpStatus.CONFLICT;
+        };
+        if (status == HttpStatus.NO_CONTENT) {
+            return new ResponseEntity<>(status);
+        }
+        return new ResponseEntity<>(change.response(), status);
+    }
 }
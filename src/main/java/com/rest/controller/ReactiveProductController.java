@@ -0,0 +1,150 @@
+package com.rest.controller;
+
+import com.rest.dto.ProductDto;
+import com.rest.service.ProductService;
+import com.rest.service.ReactiveProductService;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductListing;
+import com.rest.web.response.ProductResponse;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking REST API for product listing, lookup and creation, active with the {@code reactive} profile
+ * <p>
+ * Same paths, parameters, status codes, headers and {@link ProductResponse} bodies as {@link ProductController},
+ * served on the WebFlux event loop with R2DBC and a non-blocking HNB client instead of a thread per request.
+ * <p>
+ * Endpoints:
+ * - GET /products: Retrieve paginated products with optional filtering
+ * - GET /product/{id}: Get single product by ID, with ETag / If-None-Match support
+ * - POST /product: Create new product
+ *
+ * @apiNote Bulk import, export and the admin loader stay on the servlet stack
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("reactive")
+public class ReactiveProductController {
+
+    /**
+     * Service layer dependency for product operations
+     */
+    @Autowired
+    private ReactiveProductService productService;
+
+    /**
+     * Pre-serialized single product responses
+     */
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProductController.class);
+
+    /**
+     * GET /products
+     *
+     * @return 200 OK with products, hasNext flag and optional total header
+     *         400 Unknown currency or invalid filter, sort or cursor
+     *         404 No products found
+     *         500 Query failed
+     * @see ProductController#getAllProducts For parameters
+     */
+    @RequestMapping(value = ProductResponse.GET_ALL_URL, method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ProductResponse>> getAllProducts(@RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
+                                                                 @RequestParam(value = "per_page", required = false, defaultValue = "10") final Integer pageSize,
+                                                                 @RequestParam(value = "sort", required = false, defaultValue = "name") final String sort,
+                                                                 @RequestParam(value = "filter", required = false, defaultValue = "{}") final String filter,
+                                                                 @RequestParam(value = "currency", required = false) final String currency,
+                                                                 @RequestParam(value = "after", required = false) final String after,
+                                                                 @RequestParam(value = "withTotal", required = false, defaultValue = "false") final String withTotal) {
+        log.debug("Initiating GET ALL PRODUCTS request");
+        final ProductService.TotalCount totalCount = ProductService.TotalCount.of(withTotal);
+        return productService.getAllProducts(page, pageSize, sort, filter, currency, after, totalCount)
+                .map(ReactiveProductController::toResponse);
+    }
+
+    /**
+     * GET /product/{id}
+     *
+     * @param id Product ID (must be > 0)
+     * @param ifNoneMatch ETag of a representation the client already holds
+     * @return 200 OK with product data and strong ETag, served from pre-serialized bytes when cached
+     *         304 Not Modified if the ETag matches
+     *         404 Product not found
+     * @see ProductJsonCache For caching and invalidation
+     */
+    @RequestMapping(value = ProductResponse.GET_URL, method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getProduct(@PathVariable final long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        log.debug("Processing GET PRODUCT request for ID: {}", id);
+        final String rateVersion = productJsonCache.currentRateVersion();
+        final ProductJsonCache.Entry cached = productJsonCache.get(id, rateVersion);
+        if (cached != null) {
+            return Mono.just(toResponse(cached, ifNoneMatch));
+        }
+
+        final long stamp = productJsonCache.stamp(id);
+        return productService.getProduct(id).map(productResponse -> {
+            if (!productResponse.getErrors().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(productJsonCache.serialize(productResponse));
+            }
+            return toResponse(productJsonCache.put(id, rateVersion, stamp, productResponse), ifNoneMatch);
+        });
+    }
+
+    /**
+     * POST /product
+     *
+     * @param productDto Product data (JSON)
+     * @return 201 Created with new product
+     *         400 Invalid input/duplicate code
+     */
+    @RequestMapping(value = ProductResponse.POST_URL, method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ProductResponse>> addProduct(@RequestBody @Valid final ProductDto productDto) {
+        log.info("Received POST request for new product: {}", productDto.getName());
+        return productService.addProduct(productDto).map(productResponse -> {
+            if (!productResponse.getErrors().isEmpty()) {
+                return new ResponseEntity<>(productResponse, HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(productResponse, HttpStatus.CREATED);
+        });
+    }
+
+    private static ResponseEntity<ProductResponse> toResponse(final ProductListing listing) {
+        final HttpStatus status = switch (listing.outcome()) {
+            case FOUND -> HttpStatus.OK;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case INVALID -> HttpStatus.BAD_REQUEST;
+            case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        final HttpHeaders headers = new HttpHeaders();
+        if (status == HttpStatus.OK && listing.hasTotal()) {
+            headers.add(listing.estimated() ? "totalItemsEstimate" : "totalItems", String.valueOf(listing.totalItems()));
+        }
+        return new ResponseEntity<>(listing.response(), headers, status);
+    }
+
+    private static ResponseEntity<byte[]> toResponse(final ProductJsonCache.Entry entry, final String ifNoneMatch) {
+        if (ProductJsonCache.matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
+}
@@ -0,0 +1,59 @@
+package com.rest.converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free rounding of decimal amounts to whole cents, used by {@link com.rest.dto.Money#of(double)}.
+ * <p>
+ * Rounds like {@code new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN)}: HALF_EVEN rounding of the exact
+ * binary value.
+ * Ties are decided with {@link Math#fma(double, double, double)}, so no intermediate String,
+ * DecimalFormat or BigDecimal is created for realistic prices.
+ */
+public final class PriceRounding {
+
+    /**
+     * Above this magnitude {@code value * 100} no longer has room for the half-cent tie check
+     * and the exact BigDecimal path is used instead
+     */
+    private static final double FAST_PATH_LIMIT = 0x1p45;
+
+    private PriceRounding() {}
+
+    /**
+     * Converts an amount to whole minor units (cents) using HALF_EVEN
+     * @param value Finite amount
+     * @return Number of cents
+     * @throws ArithmeticException If the value is not finite or does not fit into a long
+     */
+    public static long toCents(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Amount is not a finite number: " + value);
+        }
+        if (Math.abs(value) >= FAST_PATH_LIMIT) {
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+        final long cents = (long) centsOf(Math.abs(value));
+        return value < 0 ? -cents : cents;
+    }
+
+    /**
+     * HALF_EVEN rounded number of cents of a non-negative value below {@link #FAST_PATH_LIMIT}
+     */
+    private static double centsOf(final double abs) {
+        // cents = floor of the exact product abs * 100; fma gives the exact sign of the remainder
+        double cents = Math.floor(abs * 100);
+        if (Math.fma(abs, 100, -cents) < 0) {
+            cents -= 1;
+        } else if (Math.fma(abs, 100, -(cents + 1)) >= 0) {
+            cents += 1;
+        }
+
+        final double fromHalf = Math.fma(abs, 100, -(cents + 0.5));
+        if (fromHalf > 0 || (fromHalf == 0 && cents % 2 != 0)) {
+            cents += 1;
+        }
+        return cents;
+    }
+}
@@ -1,21 +1,24 @@
 package com.rest.converter;
 
+import com.rest.dto.Money;
 import com.rest.dto.ProductDto;
 import com.rest.entity.Product;
 import com.rest.service.UsdConvertService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Bidirectional converter between {@link Product} entities and {@link ProductDto} objects with currency formatting.
  * <p>
  * Responsibilities:
  * - Entity->DTO: Adds formatted USD price using current exchange rate
+ * - Entity->DTO: Adds prices in any requested currencies from a precomputed {@link RateTable}
  * - DTO->Entity: Persists core product data without currency information
- * - Maintains numeric formatting consistency across conversions
+ * - Converts prices exactly in integer arithmetic via {@link Money#convert(long)}
  *
  * @see UsdConvertService For exchange rate retrieval
  */
@@ -30,20 +33,63 @@ public class ProductDtoConverter {
      * @param entity Source entity from database
      * @param usdRate Current EUR->USD exchange rate (typically from {@link UsdConvertService#findUSDRate()})
      * @return DTO with prices rounded to 2 decimal places
-     * @throws ArithmeticException If usdRate produces invalid decimal formatting
      */
     public ProductDto convert(final Product entity, final Double usdRate) {
-        DecimalFormat df = new DecimalFormat("#.##");
         ProductDto productDto = new ProductDto();
         productDto.setId(entity.getId());
         productDto.setCode(entity.getCode());
         productDto.setName(entity.getName());
         productDto.setPriceEur(entity.getPriceEur());
-        productDto.setPriceUsd(Double.valueOf(df.format( entity.getPriceEur() * usdRate)));
+        productDto.setPriceUsd(entity.getPriceEur().convert(RateTable.toMicros(usdRate)));
         productDto.setAvailable(entity.getAvailable());
+        productDto.setVersion(entity.getVersion());
         return productDto;
     }
 
+    /**
+     * Converts Product entity to API-ready DTO with USD and additionally selected currency prices
+     * @param entity Source entity from database
+     * @param usdRate Current EUR->USD exchange rate
+     * @param currencies Currencies resolved once per request by {@link RateTable#select(List)}
+     * @return DTO with all prices rounded to 2 decimal places
+     * @apiNote Rates are read from the selection's arrays, no lookups or network calls happen per product
+     */
+    public ProductDto convert(final Product entity, final Double usdRate, final RateTable.Selection currencies) {
+        final ProductDto productDto = convert(entity, usdRate);
+        addCurrencies(productDto, currencies);
+        return productDto;
+    }
+
+    /**
+     * Completes projected DTOs in place with USD and additionally selected currency prices
+     * @param dtos DTOs read by the listing projection, EUR price set
+     * @param usdRate Rate applied to all USD conversions
+     * @param currencies Additional currencies applied to every product
+     * @return The given DTOs
+     * @apiNote Same prices as {@link #convertToDto(List, Double, RateTable.Selection)}, without a copy of each product
+     */
+    public List<ProductDto> addPrices(final List<ProductDto> dtos, final Double usdRate, final RateTable.Selection currencies) {
+        final long usdMicros = RateTable.toMicros(usdRate);
+        for (final ProductDto productDto : dtos) {
+            productDto.setPriceUsd(productDto.getPriceEur().convert(usdMicros));
+            addCurrencies(productDto, currencies);
+        }
+        return dtos;
+    }
+
+    /**
+     * Sets prices in the selected currencies, left null when none was requested
+     */
+    private static void addCurrencies(final ProductDto productDto, final RateTable.Selection currencies) {
+        if (currencies.size() > 0) {
+            final Map<String, Money> prices = new LinkedHashMap<>(currencies.size() * 2);
+            for (int i = 0; i < currencies.size(); i++) {
+                prices.put(currencies.code(i), productDto.getPriceEur().convert(currencies.rateMicros(i)));
+            }
+            productDto.setPrices(prices);
+        }
+    }
+
     /**
      * Converts Product DTO to persistence-ready entity
      * @param dto API input containing new product data
@@ -70,6 +116,18 @@ public class ProductDtoConverter {
         return entities.stream().map(e -> convert(e, usdRate)).toList();
     }
 
+    /**
+     * Batch converts entities to DTOs using shared exchange rates
+     * @param entities Products from database
+     * @param usdRate Rate applied to all USD conversions
+     * @param currencies Additional currencies applied to every product
+     * @return List of DTOs with uniform currency formatting
+     * @see #convert(Product, Double, RateTable.Selection) For individual conversion logic
+     */
+    public List<ProductDto> convertToDto(final List<Product> entities, final Double usdRate, final RateTable.Selection currencies) {
+        return entities.stream().map(e -> convert(e, usdRate, currencies)).toList();
+    }
+
     /**
      * Batch converts DTOs to entities for bulk operations
      * @param dtos Products from API input
@@ -0,0 +1,223 @@
+package com.rest.converter;
+
+import com.rest.dto.ExchangeRates;
+import com.rest.dto.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable EUR based exchange rate table built from one HNB {@code tecajn-eur/v3} bulletin.
+ * <p>
+ * Rates are stored in parallel arrays sorted by a packed 3-letter currency key, so lookups are a
+ * binary search over an {@code int[]} and never allocate. Rates are units of currency per 1 EUR
+ * (HNB "srednji_tecaj"), kept exactly as fixed-point longs scaled by {@link Money#RATE_SCALE}.
+ * EUR itself is always present with rate 1.
+ *
+ * @see com.rest.service.UsdConvertService#findRates() For the currently held table
+ */
+public final class RateTable {
+
+    /** Currency all product prices are stored in */
+    public static final String BASE_CURRENCY = "EUR";
+
+    /** Table holding only the base currency, used before HNB answered */
+    public static final RateTable EMPTY = new RateTable(new int[]{pack(BASE_CURRENCY)}, new String[]{BASE_CURRENCY}, new long[]{Money.RATE_SCALE}, "");
+
+    /** Packed currency codes, sorted ascending */
+    private final int[] keys;
+
+    /** Currency codes in key order */
+    private final String[] codes;
+
+    /** Rates in key order, scaled by {@link Money#RATE_SCALE} */
+    private final long[] rates;
+
+    /** HNB bulletin identifier (number and date), changes whenever rates change */
+    private final String version;
+
+    private RateTable(final int[] keys, final String[] codes, final long[] rates, final String version) {
+        this.keys = keys;
+        this.codes = codes;
+        this.rates = rates;
+        this.version = version;
+    }
+
+    /**
+     * Builds a table from HNB rates list
+     * @param exchangeRates HNB bulletin entries
+     * @return Table containing every listed currency plus EUR
+     * @throws IllegalArgumentException If an entry has no valid currency code or rate
+     */
+    public static RateTable of(final List<ExchangeRates> exchangeRates) {
+        final int size = exchangeRates.size() + 1;
+        final long[] sortable = new long[size];
+        final String[] parsedCodes = new String[size];
+        final long[] parsedRates = new long[size];
+
+        parsedCodes[0] = BASE_CURRENCY;
+        parsedRates[0] = Money.RATE_SCALE;
+        for (int i = 1; i < size; i++) {
+            final ExchangeRates entry = exchangeRates.get(i - 1);
+            parsedCodes[i] = entry.getValuta().toUpperCase(Locale.ROOT);
+            parsedRates[i] = parseRate(entry.getSrednji_tecaj());
+        }
+        for (int i = 0; i < size; i++) {
+            sortable[i] = ((long) pack(parsedCodes[i]) << 32) | i;
+        }
+        Arrays.sort(sortable);
+
+        final int[] keys = new int[size];
+        final String[] codes = new String[size];
+        final long[] rates = new long[size];
+        int count = 0;
+        for (final long packed : sortable) {
+            final int key = (int) (packed >>> 32);
+            if (count > 0 && keys[count - 1] == key) {
+                continue;
+            }
+            final int source = (int) packed;
+            keys[count] = key;
+            codes[count] = parsedCodes[source];
+            rates[count] = parsedRates[source];
+            count++;
+        }
+
+        final ExchangeRates first = exchangeRates.isEmpty() ? null : exchangeRates.get(0);
+        final String version = first == null ? "" : first.getBroj_tecajnice() + "@" + first.getDatum_primjene();
+        return new RateTable(Arrays.copyOf(keys, count), Arrays.copyOf(codes, count), Arrays.copyOf(rates, count), version);
+    }
+
+    /**
+     * Finds the position of a currency in this table
+     * @param code 3-letter ISO currency code (case-insensitive)
+     * @return Index usable with {@link #rateMicros(int)}, or -1 if the currency is not listed
+     */
+    public int indexOf(final String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        return Math.max(-1, Arrays.binarySearch(keys, pack(code)));
+    }
+
+    /**
+     * @param index Position returned by {@link #indexOf(String)}
+     * @return Units of currency per 1 EUR, scaled by {@link Money#RATE_SCALE}
+     */
+    public long rateMicros(final int index) {
+        return rates[index];
+    }
+
+    /**
+     * @param code 3-letter ISO currency code
+     * @return Units of currency per 1 EUR, or null if the currency is not listed
+     */
+    public Double findRate(final String code) {
+        final int index = indexOf(code);
+        return index < 0 ? null : (double) rates[index] / Money.RATE_SCALE;
+    }
+
+    /**
+     * Converts a decimal rate to the fixed-point form used by {@link Money#convert(long)}
+     * @param rate Units of currency per 1 EUR
+     * @return Rate scaled by {@link Money#RATE_SCALE}, rounded to the nearest unit
+     */
+    public static long toMicros(final double rate) {
+        return Math.round(rate * Money.RATE_SCALE);
+    }
+
+    /**
+     * Resolves requested currencies once so per-product conversion is plain array access
+     * @param requested Currency codes in response order
+     * @return Selection with codes and rates in request order
+     * @throws IllegalArgumentException If a currency is not listed in this table
+     */
+    public Selection select(final List<String> requested) {
+        final String[] selectedCodes = new String[requested.size()];
+        final long[] selectedRates = new long[requested.size()];
+        for (int i = 0; i < selectedCodes.length; i++) {
+            final int index = indexOf(requested.get(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown currency: " + requested.get(i) + ".");
+            }
+            selectedCodes[i] = codes[index];
+            selectedRates[i] = rates[index];
+        }
+        return new Selection(selectedCodes, selectedRates);
+    }
+
+    /**
+     * @return Listed currency codes in key order
+     */
+    public List<String> getCurrencies() {
+        return List.of(codes);
+    }
+
+    /**
+     * @return HNB bulletin identifier, empty for {@link #EMPTY}
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Parses HNB decimal rate (comma or dot separator) exactly into fixed-point form
+     */
+    private static long parseRate(final String rate) {
+        return new BigDecimal(rate.trim().replace(",", "."))
+                .movePointRight(Money.RATE_DIGITS)
+                .setScale(0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    /**
+     * Packs an ASCII 3-letter code into an int, upper-casing letters
+     */
+    private static int pack(final String code) {
+        return (Character.toUpperCase(code.charAt(0)) << 16) | (Character.toUpperCase(code.charAt(1)) << 8) | Character.toUpperCase(code.charAt(2));
+    }
+
+    /**
+     * Currencies requested for one response, with rates taken from a single table snapshot
+     */
+    public static final class Selection {
+
+        /** Selection applying no extra currencies */
+        public static final Selection NONE = new Selection(new String[0], new long[0]);
+
+        private final String[] codes;
+
+        private final long[] rates;
+
+        private Selection(final String[] codes, final long[] rates) {
+            this.codes = codes;
+            this.rates = rates;
+        }
+
+        /**
+         * @return Number of selected currencies
+         */
+        public int size() {
+            return codes.length;
+        }
+
+        /**
+         * @param index Position in request order
+         * @return Currency code
+         */
+        public String code(final int index) {
+            return codes[index];
+        }
+
+        /**
+         * @param index Position in request order
+         * @return Units of currency per 1 EUR, scaled by {@link Money#RATE_SCALE}
+         */
+        public long rateMicros(final int index) {
+            return rates[index];
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.rest.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rest.converter.PriceRounding;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact monetary amount with 2 decimal places, stored as a whole number of minor units (cents).
+ * <p>
+ * Features:
+ * - Currency conversion in integer arithmetic with HALF_EVEN rounding
+ * - Serialized to JSON as a plain number (e.g. 1.99), same shape as the former Double prices
+ * - Extends {@link Number} so bean validation constraints such as {@code @Positive} keep working
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money extends Number implements Comparable<Money> {
+
+    /** Decimal places of exchange rates passed to {@link #convert(long)} */
+    public static final int RATE_DIGITS = 6;
+
+    /** Exchange rates are passed to {@link #convert(long)} as whole units of 10^-{@value #RATE_DIGITS} */
+    public static final long RATE_SCALE = BigDecimal.ONE.scaleByPowerOfTen(RATE_DIGITS).longValueExact();
+
+    /** Zero amount */
+    public static final Money ZERO = new Money(0);
+
+    /** Amount in minor units */
+    private final long cents;
+
+    private Money(final long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * @param cents Amount in minor units
+     * @return Money of given minor units
+     */
+    public static Money ofCents(final long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @param amount Decimal amount, rounded HALF_EVEN to 2 decimal places
+     * @return Money closest to the amount
+     * @throws ArithmeticException If the amount is not finite or out of range
+     */
+    public static Money of(final double amount) {
+        return ofCents(PriceRounding.toCents(amount));
+    }
+
+    /**
+     * @param amount Decimal amount, rounded HALF_EVEN to 2 decimal places
+     * @return Money closest to the amount
+     * @throws ArithmeticException If the amount is out of range
+     */
+    public static Money of(final BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /**
+     * @return Amount in minor units
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * @return Exact decimal amount with scale 2
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Converts this amount with an exchange rate using integer arithmetic
+     * @param rateMicros Units of target currency per unit of this amount, scaled by {@link #RATE_SCALE}
+     * @return Converted amount rounded HALF_EVEN to cents
+     */
+    public Money convert(final long rateMicros) {
+        final long high = Math.multiplyHigh(cents, rateMicros);
+        final long low = cents * rateMicros;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            long quotient = Math.floorDiv(low, RATE_SCALE);
+            final long remainder = Math.floorMod(low, RATE_SCALE);
+            if (2 * remainder > RATE_SCALE || (2 * remainder == RATE_SCALE && (quotient & 1) != 0)) {
+                quotient++;
+            }
+            return ofCents(quotient);
+        }
+        return of(toBigDecimal().multiply(BigDecimal.valueOf(rateMicros, RATE_DIGITS)));
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return cents / 100;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(final Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * @return Plain decimal representation with at least one fraction digit (e.g. 2.0, 1.5, 1.99), never in exponent
+     *         notation; also the JSON form
+     */
+    @Override
+    public String toString() {
+        final long abs = Math.abs(cents);
+        final long fraction = abs % 100;
+        final StringBuilder builder = new StringBuilder(24);
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append(abs / 100).append('.');
+        if (fraction % 10 == 0) {
+            builder.append(fraction / 10);
+        } else {
+            if (fraction < 10) {
+                builder.append('0');
+            }
+            builder.append(fraction);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes money as a JSON number
+     */
+    static final class Serializer extends StdSerializer<Money> {
+
+        Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(final Money value, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    /**
+     * Reads money from a JSON number or numeric string, rounding to cents
+     */
+    static final class Deserializer extends StdDeserializer<Money> {
+
+        Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.of(parser.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return Money.of(new BigDecimal(parser.getText().trim()));
+                } catch (NumberFormatException e) {
+                    return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), "not a valid amount");
+                }
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
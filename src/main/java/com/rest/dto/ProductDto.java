@@ -1,8 +1,10 @@
 package com.rest.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Data Transfer Object representing product information
@@ -35,13 +37,20 @@ public class ProductDto implements Serializable {
      */
     @NotNull(message = "Product price is required")
     @Positive(message = "Product price must be a positive number")
-    private Double priceEur;
+    private Money priceEur;
     
     /**
      * Price in US Dollars (automatically calculated)
      * Optional field, derived from EUR rate
      */
-    private Double priceUsd;
+    private Money priceUsd;
+
+    /**
+     * Prices in additionally requested currencies keyed by ISO code (automatically calculated)
+     * Omitted from JSON when no extra currency was requested
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, Money> prices;
     
     /**
      * Product availability status
@@ -50,6 +59,13 @@ public class ProductDto implements Serializable {
      */
     private Boolean isAvailable;
 
+    /**
+     * Optimistic lock version of the stored product
+     * Sent back with PUT, PATCH or DELETE to reject changes based on a stale read, ignored on create
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
     /**
      * Default constructor for serialization
      */
@@ -64,7 +80,7 @@ public class ProductDto implements Serializable {
      * @param priceUsd Price in US Dollars
      * @param isAvailable Product availability status
      */
-    public ProductDto(long id, String code, String name, Double priceEur, Double priceUsd, Boolean isAvailable) {
+    public ProductDto(long id, String code, String name, Money priceEur, Money priceUsd, Boolean isAvailable) {
         this.id = id;
         this.code = code;
         this.name = name;
@@ -73,6 +89,38 @@ public class ProductDto implements Serializable {
         this.isAvailable = isAvailable;
     }
 
+    /**
+     * Parameterized constructor with prices given as decimal numbers
+     * @param id Product ID
+     * @param code Product code
+     * @param name Product name
+     * @param priceEur Price in Euros, rounded to cents
+     * @param priceUsd Price in US Dollars, rounded to cents
+     * @param isAvailable Product availability status
+     */
+    public ProductDto(long id, String code, String name, Double priceEur, Double priceUsd, Boolean isAvailable) {
+        this(id, code, name, priceEur == null ? null : Money.of(priceEur), priceUsd == null ? null : Money.of(priceUsd), isAvailable);
+    }
+
+    /**
+     * Projection constructor used by the listing query, prices in other currencies are added afterwards
+     * @param id Product ID
+     * @param code Product code
+     * @param name Product name
+     * @param priceEur Price in Euros
+     * @param isAvailable Product availability status
+     * @param version Optimistic lock version
+     * @see com.rest.repository.ProductQueryPlan#getProjection()
+     */
+    public ProductDto(Long id, String code, String name, Money priceEur, Boolean isAvailable, Long version) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.priceEur = priceEur;
+        this.isAvailable = isAvailable;
+        this.version = version;
+    }
+
     /**
      * Retrieves the product's unique identifier
      * @return Product ID
@@ -108,18 +156,18 @@ public class ProductDto implements Serializable {
 
     /**
      * Retrieves localized price value
-     * @return price in Euros as positive double
+     * @return price in Euros, exact to the cent
      */
-    public Double getPriceEur() {
+    public Money getPriceEur() {
         return priceEur;
     }
 
     /**
      * Sets Euro price with validation
-     * @param priceEur Positive numeric value
+     * @param priceEur Positive amount
      * @throws IllegalArgumentException if value is not positive
      */
-    public void setPriceEur(Double priceEur) {
+    public void setPriceEur(Money priceEur) {
         this.priceEur = priceEur;
     }
 
@@ -140,17 +188,31 @@ public class ProductDto implements Serializable {
     /**
      * Returns price in US Dollars
      */
-    public Double getPriceUsd() {
+    public Money getPriceUsd() {
         return priceUsd;
     }
 
     /**
      * Sets price in US Dollars
      */
-    public void setPriceUsd(Double priceUsd) {
+    public void setPriceUsd(Money priceUsd) {
         this.priceUsd = priceUsd;
     }
 
+    /**
+     * Returns prices in additionally requested currencies
+     */
+    public Map<String, Money> getPrices() {
+        return prices;
+    }
+
+    /**
+     * Sets prices in additionally requested currencies
+     */
+    public void setPrices(Map<String, Money> prices) {
+        this.prices = prices;
+    }
+
     /**
      * Returns availability status
      */
@@ -164,4 +226,18 @@ public class ProductDto implements Serializable {
     public void setAvailable(Boolean available) {
         isAvailable = available;
     }
+
+    /**
+     * Returns optimistic lock version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets optimistic lock version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,52 @@
+package com.rest.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Partial product change for PATCH requests
+ * <p>
+ * Null fields are left as stored, so only the given columns end up in the UPDATE statement.
+ * Constraints match {@link ProductDto} but accept absent values.
+ *
+ * @param id Product ID, required in batch PATCH and taken from the path otherwise
+ * @param code New 10-character product code
+ * @param name New display name, must not be blank
+ * @param priceEur New positive price in Euros
+ * @param available New availability status
+ * @param version Version the change is based on, the change is rejected if the product was modified since; null to skip the check
+ */
+public record ProductPatch(@Positive(message = "Product id must be a positive number") Long id,
+                           @Size(min = 10, max = 10, message = "Product code must be 10 characters long") String code,
+                           @Pattern(regexp = ".*\\S.*", message = "Product name must not be blank") String name,
+                           @Positive(message = "Product price must be a positive number") Money priceEur,
+                           Boolean available,
+                           Long version) {
+
+    /**
+     * Full replacement as a patch setting every field
+     * @param id Product ID from the path
+     * @param dto Validated product data, its version is the expected one
+     * @return Patch changing all stored fields
+     */
+    public static ProductPatch replacing(final long id, final ProductDto dto) {
+        return new ProductPatch(id, dto.getCode(), dto.getName(), dto.getPriceEur(),
+                dto.getAvailable() == null ? Boolean.TRUE : dto.getAvailable(), dto.getVersion());
+    }
+
+    /**
+     * @param id Product ID from the path
+     * @return Same change addressed to the given product
+     */
+    public ProductPatch withId(final long id) {
+        return new ProductPatch(id, code, name, priceEur, available, version);
+    }
+
+    /**
+     * @return True if no stored field would change
+     */
+    public boolean isEmpty() {
+        return code == null && name == null && priceEur == null && available == null;
+    }
+}
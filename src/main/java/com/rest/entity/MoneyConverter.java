@@ -0,0 +1,26 @@
+package com.rest.entity;
+
+import com.rest.dto.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Money} attributes to NUMERIC columns with scale 2.
+ * <p>
+ * Applied automatically to every Money attribute.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(final Money attribute) {
+        return attribute == null ? null : attribute.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(final BigDecimal dbData) {
+        return dbData == null ? null : Money.of(dbData);
+    }
+}
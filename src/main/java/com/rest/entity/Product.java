@@ -1,6 +1,10 @@
 package com.rest.entity;
 
+import com.rest.dto.Money;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 
@@ -10,16 +14,32 @@ import java.io.Serializable;
  * Stores product information including pricing in EUR and availability status.
  * Price in USD is not stored into database because we use HNB API to convert price in EUR to USD.
  * Persisted in the database through JPA annotations.
+ * Held in the "products" second-level cache region (see application.conf for size and TTL).
+ * Updates are optimistically locked on {@link #version} and write only the changed columns.
  */
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@DynamicUpdate
 public class Product implements Serializable {
 
     /**
-     * Unique identifier generated by the database
+     * Second-level cache region of product entities
+     */
+    public static final String CACHE_REGION = "products";
+
+    /**
+     * Ids reserved by one nextval of products_id_seq, must match the sequence increment
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Unique identifier from products_id_seq, allocated in blocks so inserts can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false, unique = true)
     private final Long id;
 
@@ -36,10 +56,10 @@ public class Product implements Serializable {
     private String name;
 
     /**
-     * Price in Euros
+     * Price in Euros, exact to the cent
      */
-    @Column(name = "price_eur", nullable = false)
-    private Double priceEur;
+    @Column(name = "price_eur", nullable = false, precision = 19, scale = 2)
+    private Money priceEur;
 
     /**
      * Availability status (default: true)
@@ -47,6 +67,13 @@ public class Product implements Serializable {
     @Column(name = "is_available", nullable = false)
     private Boolean isAvailable = true;
 
+    /**
+     * Optimistic lock version, incremented by Hibernate on every update (0 for new rows)
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Constructs an empty Product with null ID
      */
@@ -60,7 +87,7 @@ public class Product implements Serializable {
      * @param priceEur Product price in Euros
      * @param isAvailable Product availability status
      */
-    public Product(final Long id, final String code, final String name, final Double priceEur, final Boolean isAvailable) {
+    public Product(final Long id, final String code, final String name, final Money priceEur, final Boolean isAvailable) {
         this.id = id;
         this.code = code;
         this.name = name;
@@ -68,6 +95,32 @@ public class Product implements Serializable {
         this.isAvailable = isAvailable;
     }
 
+    /**
+     * Constructs a detached copy of a stored Product, e.g. read without JPA
+     * @param id Database identifier
+     * @param code Product code
+     * @param name Product name
+     * @param priceEur Product price in Euros
+     * @param isAvailable Product availability status
+     * @param version Optimistic lock version of the stored row
+     */
+    public Product(final Long id, final String code, final String name, final Money priceEur, final Boolean isAvailable, final Long version) {
+        this(id, code, name, priceEur, isAvailable);
+        this.version = version;
+    }
+
+    /**
+     * Constructs a Product with price given as decimal number
+     * @param id Database identifier
+     * @param code Product code
+     * @param name Product name
+     * @param priceEur Product price in Euros, rounded to cents
+     * @param isAvailable Product availability status
+     */
+    public Product(final Long id, final String code, final String name, final Double priceEur, final Boolean isAvailable) {
+        this(id, code, name, priceEur == null ? null : Money.of(priceEur), isAvailable);
+    }
+
     /**
      * Constructs a Product with specified ID
      * @param id Database identifier
@@ -116,14 +169,14 @@ public class Product implements Serializable {
     /**
      * @return Price in Euros
      */
-    public Double getPriceEur() {
+    public Money getPriceEur() {
         return priceEur;
     }
 
     /**
      * @param priceEur Price in Euros (required)
      */
-    public void setPriceEur(final Double priceEur) {
+    public void setPriceEur(final Money priceEur) {
         this.priceEur = priceEur;
     }
 
@@ -140,4 +193,11 @@ public class Product implements Serializable {
     public void setAvailable(final Boolean available) {
         isAvailable = available;
     }
+
+    /**
+     * @return Optimistic lock version, null before the product is persisted
+     */
+    public Long getVersion() {
+        return version;
+    }
 }
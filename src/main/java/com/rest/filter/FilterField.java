@@ -0,0 +1,141 @@
+package com.rest.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+
+import java.math.BigDecimal;
+
+/**
+ * Product attributes usable in filters and as sort keys, with their value type and permitted operators
+ */
+public enum FilterField {
+    ID("id", "id", Long.class),
+    CODE("code", "code", String.class),
+    NAME("name", "name", String.class),
+    PRICE_EUR("priceEur", "price_eur", Money.class),
+    IS_AVAILABLE("isAvailable", "is_available", Boolean.class);
+
+    /** JPA attribute name, also the key used in filter JSON */
+    private final String property;
+
+    /** Column of the products table */
+    private final String column;
+
+    /** Java type of the attribute */
+    private final Class<?> type;
+
+    FilterField(final String property, final String column, final Class<?> type) {
+        this.property = property;
+        this.column = column;
+        this.type = type;
+    }
+
+    /**
+     * @param property Filter JSON key
+     * @return Matching field
+     * @throws IllegalArgumentException If the product has no such filterable attribute
+     */
+    public static FilterField of(final String property) {
+        for (final FilterField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown filter field: " + property + ".");
+    }
+
+    /**
+     * @return JPA attribute name
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return Column of the products table
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return Java type of the attribute
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Operator used when the filter gives a bare value instead of an operator object
+     * @return CONTAINS for text (former LIKE '%x%' behaviour), EQ otherwise
+     */
+    public FilterOperator defaultOperator() {
+        return type == String.class ? FilterOperator.CONTAINS : FilterOperator.EQ;
+    }
+
+    /**
+     * @param operator Operator to check
+     * @return True if the operator is meaningful for this field
+     */
+    public boolean supports(final FilterOperator operator) {
+        if (type == Boolean.class) {
+            return operator == FilterOperator.EQ;
+        }
+        if (type == String.class) {
+            return operator == FilterOperator.EQ || operator == FilterOperator.IN
+                    || operator == FilterOperator.PREFIX || operator == FilterOperator.CONTAINS;
+        }
+        return operator != FilterOperator.PREFIX && operator != FilterOperator.CONTAINS;
+    }
+
+    /**
+     * Converts a JSON scalar to the attribute type
+     * @param node JSON value
+     * @return Typed value (Long, String, Money or Boolean)
+     * @throws IllegalArgumentException If the value does not fit the attribute
+     */
+    public Object parse(final JsonNode node) {
+        if (node == null || !node.isValueNode() || node.isNull()) {
+            throw invalid(node);
+        }
+        try {
+            if (type == Long.class) {
+                return node.isIntegralNumber() ? node.longValue() : Long.valueOf(node.asText().trim());
+            }
+            if (type == Money.class) {
+                return Money.of(node.isNumber() ? node.decimalValue() : new BigDecimal(node.asText().trim()));
+            }
+            if (type == Boolean.class) {
+                if (node.isBoolean()) {
+                    return node.booleanValue();
+                }
+                if ("true".equalsIgnoreCase(node.asText()) || "false".equalsIgnoreCase(node.asText())) {
+                    return Boolean.valueOf(node.asText());
+                }
+                throw invalid(node);
+            }
+            return node.asText();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw invalid(node);
+        }
+    }
+
+    /**
+     * @param product Listed product
+     * @return Value of this attribute
+     */
+    public Object read(final ProductDto product) {
+        return switch (this) {
+            case ID -> product.getId();
+            case CODE -> product.getCode();
+            case NAME -> product.getName();
+            case PRICE_EUR -> product.getPriceEur();
+            case IS_AVAILABLE -> product.getAvailable();
+        };
+    }
+
+    private IllegalArgumentException invalid(final JsonNode node) {
+        return new IllegalArgumentException("Invalid value for " + property + ": " + node + ".");
+    }
+}
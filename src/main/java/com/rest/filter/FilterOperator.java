@@ -0,0 +1,36 @@
+package com.rest.filter;
+
+import java.util.Locale;
+
+/**
+ * Typed comparison operators of the product filter DSL
+ * <p>
+ * Every operator maps onto a predicate PostgreSQL can answer from an index:
+ * - EQ, IN, GT, GTE, LT, LTE: B-tree range or point lookups
+ * - PREFIX: {@code LIKE 'x%'}, served by the varchar_pattern_ops index
+ * - CONTAINS: {@code LIKE '%x%'}, served by the pg_trgm index when the extension is installed
+ */
+public enum FilterOperator {
+    EQ, IN, PREFIX, CONTAINS, GT, GTE, LT, LTE;
+
+    /**
+     * @param name Operator name as written in filter JSON (e.g. gte)
+     * @return Matching operator
+     * @throws IllegalArgumentException If the operator does not exist
+     */
+    public static FilterOperator of(final String name) {
+        for (final FilterOperator operator : values()) {
+            if (operator.jsonName().equals(name)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown filter operator: " + name + ".");
+    }
+
+    /**
+     * @return Operator name as written in filter JSON
+     */
+    public String jsonName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,128 @@
+package com.rest.filter;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.rest.dto.ProductDto;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor for product listing
+ * <p>
+ * Holds the sort property and direction together with the sort key and id of the last product on a page.
+ * The next page is read with {@code WHERE (key, id) > (lastKey, lastId)} on an index ordered by (key, id),
+ * so its cost does not depend on how many pages were read before.
+ * Encoded as URL-safe Base64 of {@code property|direction|id|value}.
+ *
+ * @see com.rest.repository.ProductQueryPlan For the seek predicate
+ */
+public final class ProductCursor {
+
+    /** Entity attribute used as tie-breaker, makes every sort order total */
+    public static final String ID = FilterField.ID.getProperty();
+
+    private static final String SEPARATOR = "|";
+
+    private final FilterField field;
+
+    private final Sort.Direction direction;
+
+    private final long lastId;
+
+    private final Object lastValue;
+
+    private ProductCursor(final FilterField field, final Sort.Direction direction, final long lastId, final Object lastValue) {
+        this.field = field;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Parses the listing sort parameter
+     * @param sort Sort criteria in format: property(,asc|desc), any {@link FilterField} property
+     * @return Sort on the property with id as tie-breaker in the same direction
+     * @throws IllegalArgumentException If the property is not sortable or the direction is invalid
+     */
+    public static Sort parseSort(final String sort) {
+        final String[] parts = (sort == null || sort.isBlank() ? "name" : sort).split(",", -1);
+        final FilterField field;
+        try {
+            field = FilterField.of(parts[0].trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + ".");
+        }
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + ".");
+        }
+        final Sort.Direction direction = parts.length == 2
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElseThrow(() -> new IllegalArgumentException("Unsupported sort: " + sort + "."))
+                : Sort.Direction.ASC;
+        return sortOf(field, direction);
+    }
+
+    /**
+     * Creates the cursor pointing after a listed product
+     * @param sort Sort the page was read with, as returned by {@link #parseSort(String)}
+     * @param last Last product of the page
+     * @return Cursor for the following page
+     */
+    public static ProductCursor after(final Sort sort, final ProductDto last) {
+        final Sort.Order order = sort.iterator().next();
+        final FilterField field = FilterField.of(order.getProperty());
+        return new ProductCursor(field, order.getDirection(), last.getId(), field.read(last));
+    }
+
+    /**
+     * Decodes a cursor received from a client
+     * @param encoded Value returned by {@link #encode()}
+     * @return Decoded cursor
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    public static ProductCursor decode(final String encoded) {
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            final FilterField field = FilterField.of(parts[0]);
+            return new ProductCursor(field, Sort.Direction.fromString(parts[1]), Long.parseLong(parts[2]), field.parse(TextNode.valueOf(parts[3])));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    /**
+     * @return URL-safe opaque cursor string
+     */
+    public String encode() {
+        final String raw = field.getProperty() + SEPARATOR + direction.name() + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Sort the cursor was created with, including id tie-breaker
+     */
+    public Sort getSort() {
+        return sortOf(field, direction);
+    }
+
+    /**
+     * @return Id of the last product of the previous page
+     */
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * @return Sort key of the last product of the previous page, typed as the sorted attribute
+     */
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    private static Sort sortOf(final FilterField field, final Sort.Direction direction) {
+        return field == FilterField.ID ? Sort.by(direction, ID) : Sort.by(direction, field.getProperty(), ID);
+    }
+}
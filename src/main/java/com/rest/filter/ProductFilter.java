@@ -0,0 +1,152 @@
+package com.rest.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed product filter: a conjunction of typed conditions
+ * <p>
+ * JSON syntax, one key per product attribute:
+ * <pre>
+ * {"name": "milk"}                         bare value: contains for text, eq otherwise
+ * {"name": {"prefix": "Mi"}}               eq, prefix, contains, in for code and name
+ * {"priceEur": {"gte": 1, "lt": 5}}        eq, in, gt, gte, lt, lte for id and priceEur
+ * {"isAvailable": true}                    eq for isAvailable
+ * {"code": {"in": ["A1", "B2"]}}
+ * </pre>
+ * Values are validated and typed while parsing, so invalid filters never reach the database. Conditions are kept
+ * in canonical order (by field, then operator), so filters differing only in JSON key order share one query plan.
+ *
+ * @see FilterField For filterable attributes
+ * @see FilterOperator For operators and the indexes serving them
+ * @see com.rest.repository.ProductQueryPlan For the query a filter runs as
+ */
+public final class ProductFilter {
+
+    /** Filter matching every product */
+    public static final ProductFilter NONE = new ProductFilter(List.of());
+
+    /** Upper bound for in lists, keeps statements and plans small */
+    public static final int MAX_IN_VALUES = 100;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Canonical condition order, independent of the order of keys in the JSON */
+    private static final Comparator<Condition> CANONICAL = Comparator.comparing(Condition::field).thenComparing(Condition::operator);
+
+    private final List<Condition> conditions;
+
+    private ProductFilter(final List<Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * One typed comparison
+     * @param field Filtered attribute
+     * @param operator Comparison
+     * @param values Typed operands, exactly one unless the operator is IN
+     */
+    public record Condition(FilterField field, FilterOperator operator, List<Object> values) {
+    }
+
+    /**
+     * Field and operator of one condition, without operands
+     * @param field Filtered attribute
+     * @param operator Comparison
+     */
+    public record Shape(FilterField field, FilterOperator operator) {
+    }
+
+    /**
+     * Parses filter JSON
+     * @param filter JSON object, null, blank or {} for no filter
+     * @return Parsed filter
+     * @throws IllegalArgumentException If the JSON, a field, an operator or a value is invalid
+     */
+    public static ProductFilter parse(final String filter) {
+        if (filter == null || filter.isBlank()) {
+            return NONE;
+        }
+        final JsonNode root;
+        try {
+            root = JSON.readTree(filter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid filter JSON.");
+        }
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Filter must be a JSON object.");
+        }
+
+        final List<Condition> conditions = new ArrayList<>();
+        final Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> entry = fields.next();
+            final FilterField field = FilterField.of(entry.getKey());
+            final JsonNode value = entry.getValue();
+            if (!value.isObject()) {
+                conditions.add(condition(field, field.defaultOperator(), value));
+                continue;
+            }
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("No operator given for " + field.getProperty() + ".");
+            }
+            final Iterator<Map.Entry<String, JsonNode>> operators = value.fields();
+            while (operators.hasNext()) {
+                final Map.Entry<String, JsonNode> operator = operators.next();
+                conditions.add(condition(field, FilterOperator.of(operator.getKey()), operator.getValue()));
+            }
+        }
+        conditions.sort(CANONICAL);
+        return conditions.isEmpty() ? NONE : new ProductFilter(List.copyOf(conditions));
+    }
+
+    private static Condition condition(final FilterField field, final FilterOperator operator, final JsonNode operand) {
+        if (!field.supports(operator)) {
+            throw new IllegalArgumentException("Operator " + operator.jsonName() + " is not supported for " + field.getProperty() + ".");
+        }
+        if (operator != FilterOperator.IN) {
+            return new Condition(field, operator, List.of(field.parse(operand)));
+        }
+        if (!operand.isArray() || operand.isEmpty() || operand.size() > MAX_IN_VALUES) {
+            throw new IllegalArgumentException("Operator in needs an array of 1 to " + MAX_IN_VALUES + " values for " + field.getProperty() + ".");
+        }
+        final List<Object> values = new ArrayList<>(operand.size());
+        for (final JsonNode element : operand) {
+            values.add(field.parse(element));
+        }
+        return new Condition(field, operator, List.copyOf(values));
+    }
+
+    /**
+     * @return True if the filter matches every product
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * @return Conditions in canonical order, by field and then operator
+     */
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Value-free structure of this filter, identical for all requests filtering the same way
+     * @return Field and operator of each condition in canonical order
+     */
+    public List<Shape> shape() {
+        final List<Shape> shape = new ArrayList<>(conditions.size());
+        for (final Condition condition : conditions) {
+            shape.add(new Shape(condition.field(), condition.operator()));
+        }
+        return List.copyOf(shape);
+    }
+}
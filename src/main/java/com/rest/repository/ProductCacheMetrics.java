@@ -0,0 +1,49 @@
+package com.rest.repository;
+
+import com.rest.entity.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hit ratio gauges for the Hibernate second-level and query caches
+ * <p>
+ * Raw hit and miss counters are published by Spring Boot as {@code hibernate.second.level.cache.requests}
+ * and {@code hibernate.cache.query.requests}; these gauges add the ratio since startup:
+ * - {@code products.cache.hit.ratio{cache=entity}} for product lookups by id
+ * - {@code products.cache.hit.ratio{cache=query}} for listing and count queries
+ */
+@Component
+public class ProductCacheMetrics implements MeterBinder {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Gauge.builder("products.cache.hit.ratio", statistics, ProductCacheMetrics::entityHitRatio)
+                .tag("cache", "entity")
+                .description("Share of product lookups served from the second-level cache")
+                .register(registry);
+        Gauge.builder("products.cache.hit.ratio", statistics, s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .tag("cache", "query")
+                .description("Share of product queries served from the query cache")
+                .register(registry);
+    }
+
+    private static double entityHitRatio(final Statistics statistics) {
+        final CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Product.CACHE_REGION);
+        return region == null ? Double.NaN : ratio(region.getHitCount(), region.getMissCount());
+    }
+
+    private static double ratio(final long hits, final long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+}
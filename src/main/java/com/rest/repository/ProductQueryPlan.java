@@ -0,0 +1,222 @@
+package com.rest.repository;
+
+import com.rest.filter.FilterField;
+import com.rest.filter.FilterOperator;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Product listing query compiled once per filter shape and sort
+ * <p>
+ * Operands are never part of the query text: condition i binds {@code :p<i>} and the keyset seek binds
+ * {@code :afterKey} and {@code :afterId}. Every request with the same shape therefore produces the same JPQL,
+ * which Hibernate translates to SQL once and PostgreSQL can run as a reusable prepared statement. The same
+ * statements are also rendered as native SQL for the R2DBC repository.
+ * Property names come from {@link com.rest.filter.FilterField} only, never from request input.
+ *
+ * @see ProductRepositoryImpl For the plan cache
+ */
+public final class ProductQueryPlan {
+
+    /**
+     * Cache key: everything that changes the query text
+     * @param shape Filter fields and operators in canonical order
+     * @param sort Sort with id tie-breaker, unsorted for count plans
+     * @param seek True if the query continues after a cursor
+     */
+    public record Key(List<ProductFilter.Shape> shape, Sort sort, boolean seek) {
+    }
+
+    /** Entity listing, hydrates managed {@link com.rest.entity.Product} instances */
+    private static final String ENTITY_SELECT = "select p from Product p";
+
+    /** DTO listing, reads the same columns straight into {@link com.rest.dto.ProductDto} without entities */
+    private static final String PROJECTION_SELECT = "select new com.rest.dto.ProductDto(p.id, p.code, p.name, p.priceEur, p.isAvailable, p.version)"
+            + " from Product p";
+
+    /** Columns read by {@link #getSqlSelect()}, in {@link com.rest.entity.Product} constructor order */
+    public static final String SQL_COLUMNS = "id, code, name, price_eur, is_available, version";
+
+    private final Key key;
+
+    private final String select;
+
+    private final String count;
+
+    private final String projection;
+
+    private final String sqlSelect;
+
+    private final String sqlCount;
+
+    private ProductQueryPlan(final Key key, final String[] jpql, final String[] sql) {
+        this.key = key;
+        this.select = jpql[0];
+        this.count = jpql[1];
+        this.projection = PROJECTION_SELECT + jpql[0].substring(ENTITY_SELECT.length());
+        this.sqlSelect = sql[0];
+        this.sqlCount = sql[1];
+    }
+
+    /**
+     * Renders JPQL and native SQL for a key
+     * @param key Filter shape, sort and seek flag
+     * @return Compiled plan
+     */
+    public static ProductQueryPlan compile(final Key key) {
+        return new ProductQueryPlan(key,
+                render(key, field -> "p." + field.getProperty(), ENTITY_SELECT, "select count(p) from Product p", false),
+                render(key, FilterField::getColumn, "select " + SQL_COLUMNS + " from products", "select count(*) from products", true));
+    }
+
+    /**
+     * Renders the select and count statement
+     * @param attribute Name of a field in the statement
+     * @param sql True for native SQL, where IN needs a parenthesized list the driver expands
+     * @return Select and count statement
+     */
+    private static String[] render(final Key key, final Function<FilterField, String> attribute, final String selectFrom,
+                                   final String countFrom, final boolean sql) {
+        final StringBuilder where = new StringBuilder();
+        final List<ProductFilter.Shape> shape = key.shape();
+        for (int i = 0; i < shape.size(); i++) {
+            final FilterOperator operator = shape.get(i).operator();
+            where.append(where.isEmpty() ? " where " : " and ")
+                    .append(attribute.apply(shape.get(i).field())).append(' ').append(operatorOf(operator))
+                    .append(sql && operator == FilterOperator.IN ? " (:p" + i + ")" : " :p" + i);
+            if (operator == FilterOperator.PREFIX || operator == FilterOperator.CONTAINS) {
+                // Without an explicit escape Hibernate renders escape '' and wildcards in user input would match anything
+                where.append(" escape '\\'");
+            }
+        }
+        final String count = countFrom + where;
+
+        final String id = attribute.apply(FilterField.ID);
+        if (key.seek()) {
+            final Sort.Order first = key.sort().iterator().next();
+            final String property = attribute.apply(FilterField.of(first.getProperty()));
+            final String beyond = first.isAscending() ? " > " : " < ";
+            where.append(where.isEmpty() ? " where " : " and ");
+            if (ProductCursor.ID.equals(first.getProperty())) {
+                where.append(id).append(beyond).append(":afterId");
+            } else {
+                // (key, id) > (afterKey, afterId), with the redundant key >= afterKey bound the index scan can start from
+                where.append(property).append(first.isAscending() ? " >= " : " <= ").append(":afterKey and (")
+                        .append(property).append(beyond).append(":afterKey or ").append(id).append(beyond).append(":afterId)");
+            }
+        }
+
+        final StringBuilder select = new StringBuilder(selectFrom).append(where);
+        String separator = " order by ";
+        for (final Sort.Order order : key.sort()) {
+            select.append(separator).append(attribute.apply(FilterField.of(order.getProperty()))).append(order.isAscending() ? " asc" : " desc");
+            separator = ", ";
+        }
+        return new String[]{select.toString(), count};
+    }
+
+    /**
+     * @return Key this plan was compiled for
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * @return Listing JPQL with filter, seek and order by
+     */
+    public String getSelect() {
+        return select;
+    }
+
+    /**
+     * @return Listing JPQL like {@link #getSelect()}, selecting DTOs instead of entities
+     */
+    public String getProjection() {
+        return projection;
+    }
+
+    /**
+     * @return Count JPQL with filter only
+     */
+    public String getCount() {
+        return count;
+    }
+
+    /**
+     * @return Listing SQL over the products table, same clauses and parameter names as {@link #getSelect()}
+     */
+    public String getSqlSelect() {
+        return sqlSelect;
+    }
+
+    /**
+     * @return Count SQL with filter only
+     */
+    public String getSqlCount() {
+        return sqlCount;
+    }
+
+    /**
+     * Operands of the filter conditions
+     * @param filter Filter with the same shape as this plan
+     * @return Parameters for {@link #getCount()}
+     */
+    public Map<String, Object> filterParameters(final ProductFilter filter) {
+        final List<ProductFilter.Condition> conditions = filter.getConditions();
+        final Map<String, Object> parameters = new HashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            final ProductFilter.Condition condition = conditions.get(i);
+            final Object value = condition.values().get(0);
+            parameters.put("p" + i, switch (condition.operator()) {
+                case IN -> condition.values();
+                case PREFIX -> escapeLike((String) value) + "%";
+                case CONTAINS -> "%" + escapeLike((String) value) + "%";
+                default -> value;
+            });
+        }
+        return parameters;
+    }
+
+    /**
+     * Operands of the filter conditions and the keyset seek
+     * @param filter Filter with the same shape as this plan
+     * @param after Cursor of the previous page, null unless the plan seeks
+     * @return Parameters for {@link #getSelect()}
+     */
+    public Map<String, Object> selectParameters(final ProductFilter filter, final ProductCursor after) {
+        final Map<String, Object> parameters = filterParameters(filter);
+        if (key.seek()) {
+            parameters.put("afterId", after.getLastId());
+            if (!ProductCursor.ID.equals(key.sort().iterator().next().getProperty())) {
+                parameters.put("afterKey", after.getLastValue());
+            }
+        }
+        return parameters;
+    }
+
+    private static String operatorOf(final FilterOperator operator) {
+        return switch (operator) {
+            case EQ -> "=";
+            case IN -> "in";
+            case PREFIX, CONTAINS -> "like";
+            case GT -> ">";
+            case GTE -> ">=";
+            case LT -> "<";
+            case LTE -> "<=";
+        };
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input is matched literally
+     */
+    static String escapeLike(final String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
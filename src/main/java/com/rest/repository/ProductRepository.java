@@ -3,17 +3,22 @@ package com.rest.repository;
 import com.rest.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for managing {@link Product} entities.
  * <p>
  * Provides CRUD operations and custom query methods for product data access.
  * Spring Data JPA automatically implements this interface at runtime.
+ *
+ * @see ProductRepositoryCustom For count-free listing queries
  */
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
 
     /**
      * Finds a product by its unique code
@@ -29,6 +34,14 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
      */
     boolean existsByCode(String code);
 
+    /**
+     * Checks many codes with a single query
+     * @param codes Product codes to check, bound as one array parameter so the statement text never changes
+     * @return Those of the given codes that already exist in database
+     */
+    @Query(value = "SELECT code FROM products WHERE code = ANY(:codes)", nativeQuery = true)
+    Set<String> findExistingCodes(@Param("codes") String[] codes);
+
     /**
      * Finds all available products (where isAvailable = true)
      * @return List of available products
@@ -0,0 +1,79 @@
+package com.rest.repository;
+
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom listing queries and bulk writes for {@link Product} that Spring Data cannot derive.
+ * <p>
+ * Implemented by {@link ProductRepositoryImpl} and exposed through {@link ProductRepository}.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Finds one page of products as DTOs, without loading entities or running a count query
+     * @param filter Parsed filter, {@link ProductFilter#NONE} for all products
+     * @param after Cursor of the previous page, null for offset pagination
+     * @param pageable Page index, size and sort (id tie-breaker included)
+     * @return Slice of DTOs with EUR price and version, other prices still empty
+     * @apiNote Nothing enters the persistence context or the entity cache, so there is nothing to dirty check or flush
+     */
+    Slice<ProductDto> findDtoSlice(ProductFilter filter, ProductCursor after, Pageable pageable);
+
+    /**
+     * Exact number of products matching a filter
+     * @param filter Parsed filter, {@link ProductFilter#NONE} for all products
+     * @return Matching row count
+     */
+    long countMatching(ProductFilter filter);
+
+    /**
+     * Approximate number of products from PostgreSQL planner statistics
+     * @return Estimated row count, or -1 if the table was never analyzed
+     */
+    long estimateCount();
+
+    /**
+     * Streams matching products in id order through a server-side cursor
+     * @param filter Parsed filter, {@link ProductFilter#NONE} for all products
+     * @param fetchSize Rows fetched from the database per round trip
+     * @return Products detached as they are read, must be consumed and closed inside a transaction
+     */
+    Stream<Product> streamAll(ProductFilter filter, int fetchSize);
+
+    /**
+     * Loads products by id for modification, served from the second-level cache where possible
+     * @param ids Product IDs
+     * @return Managed products in the order of the ids, null where a product does not exist; must be called inside a transaction
+     * @apiNote Missing ids are fetched with batched IN queries instead of one SELECT per product
+     */
+    List<Product> findAllInOrder(List<Long> ids);
+
+    /**
+     * Inserts new products in one transaction using JDBC batches
+     * @param products Entities without ID
+     * @apiNote Bypasses the second-level entity cache, cached listing queries are still invalidated
+     */
+    void insertAll(List<Product> products);
+
+    /**
+     * Inserts a product unless its code is taken, in one atomic statement
+     * @param product Entity without ID
+     * @return Generated ID, or null if a product with the same code already exists
+     * @apiNote Concurrent calls with the same code never fail on the unique constraint, exactly one of them inserts
+     */
+    Long insertIfAbsent(Product product);
+
+    /**
+     * Refreshes PostgreSQL planner statistics of the products table
+     * @apiNote Needed after bulk inserts, prepared statements planned for a small table would otherwise keep scanning it
+     */
+    void analyze();
+}
@@ -0,0 +1,179 @@
+package com.rest.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * JPA implementation of {@link ProductRepositoryCustom}
+ * <p>
+ * Listing queries run as JPQL compiled by {@link ProductQueryPlan}, the API listing selects DTOs directly. Compiled plans are kept in a bounded
+ * cache keyed by filter shape and sort, so a request only binds its operands.
+ * Results go through the Hibernate query cache, which drops them whenever the products table changes.
+ * Bulk inserts rely on sequence allocated ids and hibernate.jdbc.batch_size to group rows into JDBC batches.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO products (code, name, price_eur, is_available)"
+            + " VALUES (:code, :name, :priceEur, :isAvailable) ON CONFLICT (code) DO NOTHING RETURNING id";
+
+    /**
+     * Tables whose cached query results an insert makes stale
+     */
+    private static final String[] QUERY_SPACES = {"products"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Compiled plans by filter shape, sort and seek flag, size-bounded; Caffeine evicts rarely used plans first
+     */
+    private final Cache<ProductQueryPlan.Key, ProductQueryPlan> plans;
+
+    public ProductRepositoryImpl(@Value("${products.query-plan-cache.max-size:500}") final long maxPlans) {
+        this.plans = Caffeine.newBuilder().maximumSize(maxPlans).build();
+    }
+
+    /**
+     * Fetches one row more than the page size to detect a next page instead of counting all matches. DTOs come
+     * from a constructor expression in a read-only transaction: Hibernate skips flushing and the driver marks the
+     * transaction read only
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> findDtoSlice(final ProductFilter filter, final ProductCursor after, final Pageable pageable) {
+        final ProductQueryPlan plan = planFor(filter, pageable.getSort(), after != null);
+        final List<ProductDto> rows = cacheable(entityManager.createQuery(plan.getProjection(), ProductDto.class), plan.selectParameters(filter, after))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        final boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Read-only like {@link #findDtoSlice}, so the count of a listing page is served by the same read replica
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long countMatching(final ProductFilter filter) {
+        final ProductQueryPlan plan = planFor(filter, Sort.unsorted(), false);
+        return cacheable(entityManager.createQuery(plan.getCount(), Long.class), plan.filterParameters(filter)).getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        final Number estimate = (Number) entityManager
+                .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.products'::regclass")
+                .getSingleResult();
+        return Math.max(-1, estimate.longValue());
+    }
+
+    /**
+     * Rows bypass the second-level cache and are detached one by one, so memory does not grow with the table
+     */
+    @Override
+    public Stream<Product> streamAll(final ProductFilter filter, final int fetchSize) {
+        final ProductQueryPlan plan = planFor(filter, Sort.by(ProductCursor.ID), false);
+        final TypedQuery<Product> query = entityManager.createQuery(plan.getSelect(), Product.class);
+        plan.selectParameters(filter, null).forEach(query::setParameter);
+        final Stream<Product> products = query
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream();
+        return products.map(product -> {
+            entityManager.detach(product);
+            return product;
+        });
+    }
+
+    @Override
+    public List<Product> findAllInOrder(final List<Long> ids) {
+        return entityManager.unwrap(Session.class).byMultipleIds(Product.class)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    /**
+     * Imported rows are not read back right away, so they skip the entity cache instead of evicting hot entries
+     */
+    @Override
+    @Transactional
+    public void insertAll(final List<Product> products) {
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        for (final Product product : products) {
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * The id comes from the column default, which takes a whole sequence block and so never collides with
+     * ids Hibernate hands out. A statement with RETURNING is a result query to Hibernate and would not mark the
+     * table as changed, so cached listing queries are invalidated here the way an entity insert does it.
+     */
+    @Override
+    @Transactional
+    public Long insertIfAbsent(final Product product) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(QUERY_SPACES, session);
+
+        final List<?> ids = entityManager.createNativeQuery(INSERT_IF_ABSENT, Long.class)
+                .setParameter("code", product.getCode())
+                .setParameter("name", product.getName())
+                .setParameter("priceEur", product.getPriceEur().toBigDecimal())
+                .setParameter("isAvailable", product.getAvailable())
+                .getResultList();
+        session.getActionQueue().registerProcess((success, completed) -> timestamps.invalidate(QUERY_SPACES, completed));
+        return ids.isEmpty() ? null : ((Number) ids.get(0)).longValue();
+    }
+
+    @Override
+    @Transactional
+    public void analyze() {
+        entityManager.createNativeQuery("ANALYZE public.products").executeUpdate();
+    }
+
+    /**
+     * @return Cached or newly compiled plan
+     */
+    ProductQueryPlan planFor(final ProductFilter filter, final Sort sort, final boolean seek) {
+        return plans.get(new ProductQueryPlan.Key(filter.shape(), sort, seek), ProductQueryPlan::compile);
+    }
+
+    /**
+     * Binds parameters and enables the query cache
+     */
+    private static <Q extends Query> Q cacheable(final Q query, final Map<String, Object> parameters) {
+        parameters.forEach(query::setParameter);
+        query.setHint(AvailableHints.HINT_CACHEABLE, true);
+        return query;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rest.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * JDBC data source of the reactive stack.
+ * <p>
+ * Spring Boot backs off its JDBC auto-configuration as soon as an R2DBC connection factory exists. Liquibase
+ * migrations and the JPA beans shared with the servlet stack still need a JDBC pool, so it is declared here the
+ * same way Boot would from {@code spring.datasource.*} properties.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveJdbcConfiguration {
+
+    /**
+     * @return Connection settings bound from {@code spring.datasource.*}
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * @param dataSourceProperties Connection settings
+     * @return Hikari pool tuned by {@code spring.datasource.hikari.*}
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
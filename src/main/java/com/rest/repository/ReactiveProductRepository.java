@@ -0,0 +1,163 @@
+package com.rest.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Non-blocking product repository of the reactive stack, on R2DBC
+ * <p>
+ * Listing queries are the native SQL form of the same {@link ProductQueryPlan}s the JPA repository runs, so
+ * filtering, keyset paging and sorting behave identically. Listing rows are mapped straight to {@link ProductDto}s
+ * like {@link ProductRepositoryImpl#findDtoSlice}, single rows to detached {@link Product}s; no persistence context or
+ * second-level cache is involved.
+ * New ids come from the column default like in {@link ProductRepositoryImpl#insertIfAbsent(Product)}, so both
+ * stacks can insert into the same table.
+ *
+ * @see ProductRepositoryImpl For the blocking counterpart
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO products (code, name, price_eur, is_available)"
+            + " VALUES (:code, :name, :priceEur, :isAvailable) ON CONFLICT (code) DO NOTHING RETURNING id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Compiled plans by filter shape, sort and seek flag, size-bounded; Caffeine evicts rarely used plans first
+     */
+    private final Cache<ProductQueryPlan.Key, ProductQueryPlan> plans;
+
+    public ReactiveProductRepository(@Value("${products.query-plan-cache.max-size:500}") final long maxPlans) {
+        this.plans = Caffeine.newBuilder().maximumSize(maxPlans).build();
+    }
+
+    /**
+     * Fetches one row more than the page size to detect a next page instead of counting all matches
+     * @param filter Parsed filter
+     * @param after Cursor of the previous page, null for offset paging
+     * @param pageable Page size, offset and sort with id tie-breaker
+     * @return Slice of DTOs with EUR price, other prices still empty
+     */
+    public Mono<Slice<ProductDto>> findDtoSlice(final ProductFilter filter, final ProductCursor after, final Pageable pageable) {
+        final ProductQueryPlan plan = planFor(filter, pageable.getSort(), after != null);
+        return bind(databaseClient.sql(plan.getSqlSelect() + " limit :limit offset :offset"), plan.selectParameters(filter, after))
+                .bind("limit", pageable.getPageSize() + 1)
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveProductRepository::toDto)
+                .all()
+                .collectList()
+                .map(rows -> {
+                    final boolean hasNext = rows.size() > pageable.getPageSize();
+                    return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+                });
+    }
+
+    /**
+     * @param filter Parsed filter
+     * @return Number of products matching the filter
+     */
+    public Mono<Long> countMatching(final ProductFilter filter) {
+        final ProductQueryPlan plan = planFor(filter, Sort.unsorted(), false);
+        return bind(databaseClient.sql(plan.getSqlCount()), plan.filterParameters(filter))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * @return Row count from planner statistics, -1 if the table was never analyzed
+     */
+    public Mono<Long> estimateCount() {
+        return databaseClient.sql("SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.products'::regclass")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(estimate -> Math.max(-1, estimate));
+    }
+
+    /**
+     * @param id Product ID
+     * @return Product or empty
+     */
+    public Mono<Product> findById(final long id) {
+        return databaseClient.sql("select " + ProductQueryPlan.SQL_COLUMNS + " from products where id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    /**
+     * Inserts a new product unless its code is taken, in one atomic statement
+     * @param product Product without id
+     * @return Inserted product with its id and version 0, empty if a product with the same code already exists
+     */
+    public Mono<Product> insertIfAbsent(final Product product) {
+        return databaseClient.sql(INSERT_IF_ABSENT)
+                .bind("code", product.getCode())
+                .bind("name", product.getName())
+                .bind("priceEur", product.getPriceEur().toBigDecimal())
+                .bind("isAvailable", product.getAvailable())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> new Product(id, product.getCode(), product.getName(), product.getPriceEur(), product.getAvailable(), 0L));
+    }
+
+    /**
+     * @return Cached or newly compiled plan
+     */
+    ProductQueryPlan planFor(final ProductFilter filter, final Sort sort, final boolean seek) {
+        return plans.get(new ProductQueryPlan.Key(filter.shape(), sort, seek), ProductQueryPlan::compile);
+    }
+
+    /**
+     * Binds plan parameters, money as exact decimals
+     */
+    private static DatabaseClient.GenericExecuteSpec bind(final DatabaseClient.GenericExecuteSpec spec, final Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec bound = spec;
+        for (final Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            bound = bound.bind(parameter.getKey(), toDatabase(parameter.getValue()));
+        }
+        return bound;
+    }
+
+    private static Object toDatabase(final Object value) {
+        if (value instanceof Money money) {
+            return money.toBigDecimal();
+        }
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(ReactiveProductRepository::toDatabase).toList();
+        }
+        return value;
+    }
+
+    private static ProductDto toDto(final Readable row) {
+        return new ProductDto(row.get("id", Long.class), row.get("code", String.class), row.get("name", String.class),
+                Money.of(row.get("price_eur", BigDecimal.class)), row.get("is_available", Boolean.class), row.get("version", Long.class));
+    }
+
+    private static Product toProduct(final Readable row) {
+        return new Product(row.get("id", Long.class), row.get("code", String.class), row.get("name", String.class),
+                Money.of(row.get("price_eur", BigDecimal.class)), row.get("is_available", Boolean.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,264 @@
+package com.rest.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connections for read-only transactions, taken from PostgreSQL streaming replicas when they are current enough
+ * <p>
+ * Installed as read-only target of a {@link LazyConnectionDataSourceProxy}, so only transactions declared
+ * {@code readOnly} ever get here; writes and non-transactional work always use the primary.
+ * <p>
+ * Routing rules:
+ * - Replicas are used round-robin while they are within the tolerated lag: a replica measured {@code lag} behind at
+ *   a check is used for at most {@code maxLag - lag} after the check started, so it never serves reads older than
+ *   the tolerated lag however late the next check runs
+ * - For the tolerated lag after a write committed on this instance, reads use the primary: the writer reads its own
+ *   changes, and the query cache invalidated by the write is not refilled from a replica that has not replayed it
+ * - A standby whose WAL receiver is not streaming is excluded, it may have replayed all it received long ago
+ * - A replica failing to hand out a connection is skipped until its next successful check, the read uses the primary
+ * - Without any usable replica every read uses the primary
+ * <p>
+ * Meters: {@code db.replica.lag{replica}} (replay delay at the last check, NaN if unreachable) and
+ * {@code db.replica.fallbacks} (read-only connections served by the primary).
+ *
+ * @see ReplicaDataSourceConfiguration For the pools and the routing proxy
+ */
+public class ReplicaDataSource extends AbstractDataSource implements TransactionExecutionListener, MeterBinder, Closeable {
+
+    /**
+     * WAL position the primary has written, replicas that replayed it are current as of the check
+     */
+    static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    /**
+     * Recovery state, WAL receiver state, whether the primary position is replayed, and the age of the last replayed
+     * commit in seconds. A server that is not in recovery (a stand-in) has no lag, a standby without a streaming WAL
+     * receiver cannot be trusted however much it replayed, and a standby behind the primary is as old as the last
+     * commit it replayed.
+     */
+    static final String LAG_SQL = "SELECT pg_is_in_recovery(),"
+            + " EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming'),"
+            + " pg_last_wal_replay_lsn() >= ?::pg_lsn,"
+            + " EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())";
+
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * {@link System#nanoTime()} of the last committed read-write transaction
+     */
+    private volatile long lastWrite;
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    /**
+     * @param primary Primary pool, used whenever no replica qualifies
+     * @param replicas Replica pools by name, unused until their first lag check
+     * @param maxLag Tolerated replica lag
+     */
+    public ReplicaDataSource(final DataSource primary, final Map<String, DataSource> replicas, final Duration maxLag) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagNanos = maxLag.toNanos();
+        this.lastWrite = System.nanoTime() - maxLagNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (System.nanoTime() - lastWrite >= maxLagNanos) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                final Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.isFresh()) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException | RuntimeException e) {
+                    replica.exclude();
+                    log.warn("Replica {} failed to provide a connection, reading from other replicas or the primary: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Credentials are fixed per pool
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the pool credentials");
+    }
+
+    /**
+     * Keeps reads on the primary for the tolerated lag after every committed write, failed commits included
+     */
+    @Override
+    public void afterCommit(final TransactionExecution transaction, @Nullable final Throwable commitFailure) {
+        if (!transaction.isReadOnly()) {
+            lastWrite = System.nanoTime();
+        }
+    }
+
+    /**
+     * Measures the lag of every replica against the current WAL position of the primary and admits those within the
+     * tolerated lag
+     */
+    @Scheduled(fixedDelayString = "${products.datasource.replica.check-interval:PT1S}")
+    public void checkReplicas() {
+        final long checkStart = System.nanoTime();
+        String primaryLsn = null;
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try (ResultSet lsn = statement.executeQuery(PRIMARY_LSN_SQL)) {
+                lsn.next();
+                primaryLsn = lsn.getString(1);
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Primary WAL position unavailable, replica lag taken from replay timestamps: {}", e.getMessage());
+        }
+        for (final Replica replica : replicas) {
+            final boolean wasFresh = replica.isFresh();
+            try {
+                replica.lagMillis = measureLag(replica.dataSource, primaryLsn);
+            } catch (SQLException | RuntimeException e) {
+                replica.lagMillis = Double.NaN;
+            }
+            if (Double.isNaN(replica.lagMillis)) {
+                replica.exclude();
+            } else {
+                replica.freshUntil = checkStart + maxLagNanos - (long) (replica.lagMillis * 1_000_000);
+            }
+            final boolean fresh = replica.isFresh();
+            if (fresh && !wasFresh) {
+                log.info("Replica {} serves reads again, lag {} ms", replica.name, Math.round(replica.lagMillis));
+            } else if (!fresh && wasFresh) {
+                log.warn("Replica {} excluded from reads, lag {} ms", replica.name, Math.round(replica.lagMillis));
+            }
+        }
+    }
+
+    /**
+     * @param primaryLsn WAL position of the primary at the start of the check, null if unknown
+     * @return Lag in milliseconds, NaN if the replica cannot be trusted
+     */
+    private static double measureLag(final DataSource replica, @Nullable final String primaryLsn) throws SQLException {
+        try (Connection connection = replica.getConnection(); PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            statement.setString(1, primaryLsn);
+            try (ResultSet lag = statement.executeQuery()) {
+                lag.next();
+                if (!lag.getBoolean(1)) {
+                    return 0;
+                }
+                if (!lag.getBoolean(2)) {
+                    return Double.NaN;
+                }
+                if (lag.getBoolean(3)) {
+                    return 0;
+                }
+                final double replaySeconds = lag.getDouble(4);
+                return lag.wasNull() ? Double.NaN : replaySeconds * 1000;
+            }
+        }
+    }
+
+    /**
+     * @return True if at least one replica currently serves reads
+     */
+    public boolean hasUsableReplica() {
+        return replicas.stream().anyMatch(Replica::isFresh);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (final Replica replica : replicas) {
+            TimeGauge.builder("db.replica.lag", replica, TimeUnit.MILLISECONDS, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .description("Replay delay of a read replica at its last check").register(registry);
+        }
+        FunctionCounter.builder("db.replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only connections served by the primary").register(registry);
+    }
+
+    /**
+     * Closes the replica pools, the primary is closed by its own bean
+     */
+    @Override
+    public void close() throws IOException {
+        for (final Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Replica pool with the result of its last lag check
+     */
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        /**
+         * {@link System#nanoTime()} until which the replica is within the tolerated lag
+         */
+        private volatile long freshUntil = System.nanoTime();
+
+        private volatile double lagMillis = Double.NaN;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isFresh() {
+            return System.nanoTime() - freshUntil < 0;
+        }
+
+        private void exclude() {
+            freshUntil = System.nanoTime();
+        }
+    }
+}
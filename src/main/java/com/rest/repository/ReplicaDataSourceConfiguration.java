@@ -0,0 +1,104 @@
+package com.rest.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing of the servlet stack, active when {@code products.datasource.replica.urls} is set.
+ * <p>
+ * Replaces Boot's single pool by:
+ * - The primary Hikari pool, configured from {@code spring.datasource.*} exactly as Boot would
+ * - One read-only Hikari pool per replica, copying the primary's settings
+ * - A {@link LazyConnectionDataSourceProxy} as the application data source: JPA, JdbcTemplate and Liquibase see a
+ *   single data source, the physical connection is fetched on the first statement, from {@link ReplicaDataSource}
+ *   when the transaction is read-only and from the primary otherwise
+ * <p>
+ * Transactions stay on the connection they started with, so a read-only transaction never mixes servers. Boot
+ * registers {@link ReplicaDataSource} as execution listener of the transaction manager, which is how it learns about
+ * committed writes.
+ *
+ * @see ReplicaProperties For tunable settings
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "products.datasource.replica", name = "urls")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+    /**
+     * @param dataSourceProperties Connection settings bound from {@code spring.datasource.*}
+     * @return Primary pool tuned by {@code spring.datasource.hikari.*}
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Replica pools start without connecting, an unreachable replica only stays out of rotation
+     * @param primaryDataSource Primary pool, source of the replica pool settings
+     * @param properties Replica settings
+     * @param meterRegistry Registry for the hikaricp.connections.* meters of the replica pools
+     * @return Read-only data source over all replicas, falling back to the primary
+     */
+    @Bean
+    public ReplicaDataSource replicaDataSource(final HikariDataSource primaryDataSource, final ReplicaProperties properties,
+                                               final ObjectProvider<MeterRegistry> meterRegistry) {
+        final String poolName = primaryDataSource.getPoolName() != null ? primaryDataSource.getPoolName() : "products";
+        final List<String> urls = properties.getUrls();
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            final HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(poolName + "-replica-" + (i + 1));
+            config.setJdbcUrl(urls.get(i));
+            if (properties.getUsername() != null) {
+                config.setUsername(properties.getUsername());
+                config.setPassword(properties.getPassword());
+            }
+            config.setReadOnly(true);
+            config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.getMaxLag());
+    }
+
+    /**
+     * Connection defaults match the pool defaults, so the proxy answers them without fetching a connection, not even
+     * at startup
+     * @param primaryDataSource Primary pool
+     * @param replicaDataSource Target of read-only transactions
+     * @return Data source used by the application
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final HikariDataSource primaryDataSource, final ReplicaDataSource replicaDataSource) {
+        final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
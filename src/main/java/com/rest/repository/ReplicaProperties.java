@@ -0,0 +1,121 @@
+package com.rest.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings, bound from {@code products.datasource.replica.*} properties.
+ * <p>
+ * Replicas share pool and driver settings of the primary ({@code spring.datasource.hikari.*}), only the URL,
+ * optionally the credentials and the connection timeout differ.
+ *
+ * @see ReplicaDataSourceConfiguration For activation
+ */
+@ConfigurationProperties(prefix = "products.datasource.replica")
+public class ReplicaProperties {
+
+    /** JDBC URLs of the replicas, comma separated; routing is off when empty */
+    private List<String> urls = new ArrayList<>();
+
+    /** Replica user, the primary's when not set */
+    private String username;
+
+    /** Replica password, the primary's when not set */
+    private String password;
+
+    /** Largest replay delay a replica may have to serve reads, also how long reads stay on the primary after a write */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Time between two lag checks of every replica, keep well below max-lag */
+    private Duration checkInterval = Duration.ofSeconds(1);
+
+    /** Maximum wait for a replica connection before the read falls back to the primary */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * @return Replica JDBC URLs
+     */
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    /**
+     * @param urls Replica JDBC URLs
+     */
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    /**
+     * @return Replica user, null for the primary's
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @param username Replica user
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * @return Replica password, null for the primary's
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * @param password Replica password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * @return Tolerated replica lag
+     */
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * @param maxLag Tolerated replica lag
+     */
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * @return Lag check interval
+     */
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    /**
+     * @param checkInterval Lag check interval
+     */
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * @return Replica connection timeout
+     */
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * @param connectionTimeout Replica connection timeout
+     */
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+}
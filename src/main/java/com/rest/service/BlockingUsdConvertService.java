@@ -0,0 +1,199 @@
+package com.rest.service;
+
+import com.rest.client.HnbClientProperties;
+import com.rest.converter.RateTable;
+import com.rest.dto.ExchangeRates;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate service of the servlet stack, calling HNB API (https://api.hnb.hr) through the pooled {@link RestTemplate}.
+ * <p>
+ * Features:
+ * - Rates refreshed in the background on a schedule and, once stale, on a single refresh thread
+ * - Only the very first reads block on HNB, sharing one call; after a failure they get {@link RateTable#EMPTY}
+ *   until {@code hnb.rates.cold-retry-interval} has passed
+ *
+ * @see ReactiveUsdConvertService For the non-blocking variant used by the reactive stack
+ */
+@Service
+@Profile("!reactive")
+public class BlockingUsdConvertService extends UsdConvertService {
+
+    /**
+     * Logger instance for tracking API calls and conversion operations
+     */
+    private static final Logger log = LoggerFactory.getLogger(BlockingUsdConvertService.class);
+
+    /**
+     * REST client configured for HNB API communication
+     * @see com.rest.client.HnbClientConfiguration
+     */
+    @Autowired
+    private RestTemplate restTemplate;
+
+    /**
+     * HNB client settings, the base URL is overridable to point at a stub server
+     */
+    @Autowired
+    private HnbClientProperties hnbClientProperties = new HnbClientProperties();
+
+    /**
+     * Set while a refresh is queued or running, so stale reads queue at most one
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Serializes the blocking cold-start load so concurrent first readers share one HNB call
+     */
+    private final ReentrantLock coldLoadLock = new ReentrantLock();
+
+    /**
+     * Single daemon thread running stale-while-revalidate refreshes off the request path
+     */
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hnb-rate-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Returns latest known HNB rate table without calling HNB on the read path
+     * @return Held table, or {@link RateTable#EMPTY} if HNB never returned rates
+     * @apiNote Only the very first read (before the scheduled refresh completed) blocks on HNB.
+     *          Tables older than {@code hnb.rates.max-age} are still returned while a refresh runs in the background.
+     */
+    @Override
+    public RateTable findRates() {
+        final long start = System.nanoTime();
+        try {
+            final RateTable held = findHeldRates();
+            if (held != null || isColdRetryPending()) {
+                return held == null ? RateTable.EMPTY : held;
+            }
+            loadOnColdStart();
+            final RateTable loaded = peekRates();
+            return loaded == null ? RateTable.EMPTY : loaded;
+        } finally {
+            recordLookup(start);
+        }
+    }
+
+    /**
+     * Queues a refresh unless one is already queued or running
+     */
+    @Override
+    protected void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refreshClaimed);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Periodically reloads the rate from HNB. HNB publishes once a day, the interval only bounds staleness.
+     */
+    @Scheduled(initialDelayString = "${hnb.rates.initial-delay:PT0S}", fixedDelayString = "${hnb.rates.refresh-interval:PT1H}")
+    public void scheduledRefresh() {
+        if (!hasHeldRates()) {
+            allowColdRetry();
+            loadOnColdStart();
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Fetches a fresh rate table from HNB and replaces the held one on success
+     * @return true if the held table was replaced
+     * @apiNote Concurrent calls are collapsed: only one refresh runs at a time, others return false immediately
+     */
+    public boolean refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        return refreshClaimed();
+    }
+
+    /**
+     * Refreshes after the caller set {@link #refreshing}, clearing it when done
+     * @return true if the held table was replaced
+     */
+    private boolean refreshClaimed() {
+        try {
+            return hold(fetchRates());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Fetches the full current EUR rate list from HNB API in one call
+     * @return Current rate table or null if unavailable
+     */
+    private RateTable fetchRates() {
+        log.info("Finding exchange rates.");
+        String url = hnbClientProperties.getBaseUrl() + "/tecajn-eur/v3";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            final ResponseEntity<List<ExchangeRates>> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {
+            });
+
+            if (response.getBody() == null || response.getBody().isEmpty() || response.getStatusCode() != HttpStatus.OK) {
+                throw new RuntimeException("Exchange rates not found.");
+            }
+
+            final RateTable rates = RateTable.of(response.getBody());
+            log.info("Found exchange rates. Bulletin: {}, USD rate: {}", rates.getVersion(), rates.findRate(USD));
+            return rates;
+        } catch (Exception e) {
+            log.error("Error finding exchange rates.", e);
+        }
+        return null;
+    }
+
+    /**
+     * Blocking load used only while no rate table is held yet
+     * @apiNote A failed load is not retried for {@code hnb.rates.cold-retry-interval}, so while HNB is down readers
+     *          queued on the lock and later readers do not each wait for their own failing HNB call
+     */
+    private void loadOnColdStart() {
+        coldLoadLock.lock();
+        try {
+            if (!hasHeldRates() && !isColdRetryPending() && !refresh()) {
+                deferColdRetry();
+            }
+        } finally {
+            coldLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background refresh thread on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
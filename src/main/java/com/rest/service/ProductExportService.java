@@ -0,0 +1,202 @@
+package com.rest.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streaming export of the product catalogue
+ * <p>
+ * Key Features:
+ * - Products are read through a database cursor in id order and written one by one, memory use does not depend on catalogue size
+ * - The whole export runs as one read-only statement, so it is a consistent snapshot unlike paging through the listing
+ * - USD prices are converted on the fly with the rate valid when the export started
+ *
+ * @see ProductRepository#streamAll For the cursor query
+ */
+@Service
+public class ProductExportService {
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        /** One JSON product object per line, same fields as the listing */
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        /** Comma separated values with header row (RFC 4180) */
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+
+        private final String extension;
+
+        Format(final MediaType mediaType, final String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /**
+         * @return Content type of the response
+         */
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @return Suggested file extension
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param format Request parameter value (case-insensitive)
+         * @return Matching format
+         * @throws IllegalArgumentException If the format is not supported
+         */
+        public static Format of(final String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + format + ". Use ndjson or csv.");
+            }
+        }
+    }
+
+    /**
+     * CSV header row
+     */
+    static final String CSV_HEADER = "id,code,name,priceEur,priceUsd,available";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDtoConverter productDtoConverter;
+
+    @Autowired
+    private UsdConvertService usdConvertService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Rows fetched per database round trip, also the number of rows written between flushes
+     */
+    @Value("${products.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    /**
+     * Writes all matching products to a stream
+     * @param filter Parsed filter, {@link ProductFilter#NONE} for the whole catalogue
+     * @param format Output format
+     * @param out Response stream, flushed but not closed
+     * @return Number of exported products
+     * @throws IOException If the client went away
+     */
+    @Transactional(readOnly = true)
+    public long export(final ProductFilter filter, final Format format, final OutputStream out) throws IOException {
+        log.info("Exporting products as {}.", format);
+        final Double usdRate = usdConvertService.findUSDRate();
+        final long exported;
+        try (Stream<Product> products = productRepository.streamAll(filter, fetchSize)) {
+            final Iterator<ProductDto> productDtos = products.map(product -> productDtoConverter.convert(product, usdRate)).iterator();
+            exported = format == Format.CSV ? writeCsv(productDtos, out) : writeNdjson(productDtos, out);
+        }
+        log.info("Exported {} products.", exported);
+        return exported;
+    }
+
+    private long writeNdjson(final Iterator<ProductDto> productDtos, final OutputStream out) throws IOException {
+        final ObjectWriter writer = objectMapper.writerFor(ProductDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (productDtos.hasNext()) {
+                writer.writeValue(generator, productDtos.next());
+                generator.writeRaw('\n');
+                if (++count % fetchSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(final Iterator<ProductDto> productDtos, final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        while (productDtos.hasNext()) {
+            final ProductDto productDto = productDtos.next();
+            writer.write(String.valueOf(productDto.getId()));
+            writer.write(',');
+            writer.write(csvField(productDto.getCode()));
+            writer.write(',');
+            writer.write(csvField(productDto.getName()));
+            writer.write(',');
+            writer.write(csvAmount(productDto.getPriceEur()));
+            writer.write(',');
+            writer.write(csvAmount(productDto.getPriceUsd()));
+            writer.write(',');
+            writer.write(String.valueOf(productDto.getAvailable()));
+            writer.write("\r\n");
+            if (++count % fetchSize == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Writes an amount exactly like its JSON form in NDJSON exports, see {@link Money#toString()}
+     */
+    static String csvAmount(final Money amount) {
+        return amount == null ? "" : amount.toString();
+    }
+
+    /**
+     * Quotes a value if it contains a separator, quote or line break, doubling embedded quotes
+     */
+    static String csvField(final String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,206 @@
+package com.rest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.repository.ProductRepository;
+import com.rest.web.response.ProductImportResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Bulk product import from a JSON array or newline delimited JSON (NDJSON)
+ * <p>
+ * Key Features:
+ * - Input is read row by row from the request stream, never held in memory as a whole
+ * - Rows are validated and stored in chunks: one code uniqueness query and one transaction per chunk
+ * - Inserts are sent as JDBC batches with ids allocated from the products sequence
+ * - Invalid rows are reported with their position and skipped, the rest of the input is still imported
+ * - A chunk conflicting with concurrent inserts is retried without the codes stored meanwhile
+ * - Planner statistics are refreshed whenever the table doubled, so the uniqueness query keeps using the code index
+ *
+ * @see ProductRepository#insertAll For batched inserts
+ */
+@Service
+public class ProductImportService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDtoConverter productDtoConverter;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Rows validated and inserted together, also the size of the IN list of the uniqueness query
+     */
+    @Value("${products.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Rejected rows listed in the report, further rejections are only counted
+     */
+    @Value("${products.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    /**
+     * Parsed input row
+     */
+    private record Row(long number, ProductDto product) {
+    }
+
+    /**
+     * Imports products from a stream
+     * @param input JSON array of products or one product object per line
+     * @return Report with imported and rejected counts, per row errors and request errors
+     * @apiNote Every chunk is committed on its own, so rows before malformed input stay imported
+     */
+    public ProductImportResponse importProducts(final InputStream input) {
+        final ProductImportResponse report = new ProductImportResponse();
+        final List<Row> chunk = new ArrayList<>(chunkSize);
+        final long knownRows = Math.max(productRepository.estimateCount(), 0);
+        long analyzeAt = Math.max(knownRows, chunkSize);
+        long rowNumber = 0;
+
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (rows.hasNextValue()) {
+                final JsonNode node = rows.nextValue();
+                rowNumber++;
+                try {
+                    chunk.add(new Row(rowNumber, objectMapper.treeToValue(node, ProductDto.class)));
+                } catch (JsonProcessingException e) {
+                    reject(report, rowNumber, node.path("code").asText(null), "Invalid product: " + e.getOriginalMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                    if (report.getImported() >= analyzeAt) {
+                        analyze();
+                        analyzeAt = knownRows + 2 * report.getImported();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Malformed import input after row {}: {}", rowNumber, originalMessage(e));
+            report.addError("Malformed input after row " + rowNumber + ": " + originalMessage(e));
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        if (report.getImported() > 0) {
+            analyze();
+        }
+        log.info("Imported {} products, rejected {}.", report.getImported(), report.getRejected());
+        return report;
+    }
+
+    /**
+     * Validates one chunk, drops duplicates and inserts the remaining rows
+     */
+    private void importChunk(final List<Row> chunk, final ProductImportResponse report) {
+        final Map<String, Row> byCode = new LinkedHashMap<>(chunk.size() * 2);
+        for (final Row row : chunk) {
+            final List<String> violations = validate(row.product());
+            if (!violations.isEmpty()) {
+                report.reject(new ProductImportResponse.RowError(row.number(), row.product().getCode(), violations), maxReportedErrors);
+            } else if (byCode.putIfAbsent(row.product().getCode(), row) != null) {
+                reject(report, row.number(), row.product().getCode(), "Duplicate code " + row.product().getCode() + " in import.");
+            }
+        }
+
+        final long lastRow = chunk.get(chunk.size() - 1).number();
+        boolean retry = false;
+        while (true) {
+            final int pending = byCode.size();
+            try {
+                insertNew(byCode, report);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent writer added codes after the check and the chunk was rolled back as a whole; every retry
+                // drops the codes found meanwhile, a retry dropping none failed for another reason and is not repeated
+                if (retry && byCode.size() == pending) {
+                    log.error("Chunk ending at row {} could not be stored: {}", lastRow, e.getMostSpecificCause().getMessage());
+                    for (final Row row : byCode.values()) {
+                        reject(report, row.number(), row.product().getCode(), "Product could not be stored, conflicting concurrent write.");
+                    }
+                    return;
+                }
+                log.warn("Chunk ending at row {} conflicted with concurrent insert, retrying.", lastRow);
+                retry = true;
+            }
+        }
+    }
+
+    /**
+     * Rejects rows whose code exists and inserts the rest in one batch
+     */
+    private void insertNew(final Map<String, Row> byCode, final ProductImportResponse report) {
+        if (byCode.isEmpty()) {
+            return;
+        }
+        for (final String code : productRepository.findExistingCodes(byCode.keySet().toArray(String[]::new))) {
+            final Row row = byCode.remove(code);
+            reject(report, row.number(), code, "Product with code " + code + " already exists.");
+        }
+
+        final List<Product> products = new ArrayList<>(byCode.size());
+        for (final Row row : byCode.values()) {
+            products.add(productDtoConverter.convert(row.product()));
+        }
+        productRepository.insertAll(products);
+        report.addImported(products.size());
+    }
+
+    /**
+     * Refreshes statistics, an import must not fail because the database user may not analyze the table
+     */
+    private void analyze() {
+        try {
+            productRepository.analyze();
+        } catch (DataAccessException e) {
+            log.warn("Could not analyze products table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Bean validation messages in stable order, empty if the product is valid
+     */
+    private List<String> validate(final ProductDto product) {
+        final Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().toList();
+    }
+
+    private void reject(final ProductImportResponse report, final long row, final String code, final String error) {
+        report.reject(new ProductImportResponse.RowError(row, code, List.of(error)), maxReportedErrors);
+    }
+
+    private static String originalMessage(final IOException e) {
+        return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+    }
+}
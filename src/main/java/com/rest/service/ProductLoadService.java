@@ -0,0 +1,321 @@
+package com.rest.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.entity.Product;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductLoadResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk loader writing CSV or NDJSON straight into the products table with PostgreSQL COPY
+ * <p>
+ * Key Features:
+ * - Input is streamed through the driver's {@link CopyManager} into a temporary staging table, no entities are created
+ * - Staged rows are validated and de-duplicated in SQL (last row per code wins), then merged on code:
+ *   new codes are inserted with ids from products_id_seq, existing products are updated only if they differ
+ * - Everything runs in one transaction, a failing load leaves the table untouched
+ * - Progress is logged and available through {@link #getLastLoad()} while the load runs
+ * - Second-level, query and JSON response caches are cleared afterwards, as the changes bypass Hibernate
+ * <p>
+ * CSV input needs a header row naming its columns, the export format (id,code,name,priceEur,priceUsd,available) is accepted
+ * as is; id and priceUsd are ignored. NDJSON rows use the product JSON fields.
+ *
+ * @see ProductImportService For validated imports with per row errors
+ */
+@Service
+public class ProductLoadService {
+
+    /**
+     * Staging table columns by accepted CSV header names
+     */
+    private static final Map<String, String> CSV_COLUMNS = Map.of(
+            "id", "id",
+            "code", "code",
+            "name", "name",
+            "priceeur", "price_eur",
+            "price_eur", "price_eur",
+            "priceusd", "price_usd",
+            "price_usd", "price_usd",
+            "available", "is_available",
+            "isavailable", "is_available",
+            "is_available", "is_available");
+
+    private static final String CREATE_STAGING = "CREATE TEMPORARY TABLE products_staging ("
+            + "line bigserial, id bigint, code text, name text, price_eur numeric(19,2), price_usd numeric, is_available boolean"
+            + ") ON COMMIT DROP";
+
+    private static final String REJECT_INVALID = "DELETE FROM products_staging WHERE code IS NULL OR length(code) <> 10"
+            + " OR name IS NULL OR btrim(name) = '' OR price_eur IS NULL OR price_eur <= 0";
+
+    private static final String DROP_DUPLICATES = "DELETE FROM products_staging s USING products_staging later"
+            + " WHERE later.code = s.code AND later.line > s.line";
+
+    private static final String COUNT_EXISTING = "SELECT count(*) FROM products_staging s JOIN products p ON p.code = s.code";
+
+    private static final String UPDATE_EXISTING = "UPDATE products p SET name = s.name, price_eur = s.price_eur, is_available = COALESCE(s.is_available, true), version = p.version + 1"
+            + " FROM products_staging s WHERE p.code = s.code"
+            + " AND (p.name, p.price_eur, p.is_available) IS DISTINCT FROM (s.name, s.price_eur, COALESCE(s.is_available, true))";
+
+    /**
+     * New rows take ids block by block like Hibernate's pooled optimizer: each nextval reserves the
+     * {@link Product#ID_ALLOCATION_SIZE} ids ending at the returned value
+     */
+    private static final String INSERT_NEW = "WITH new_rows AS ("
+            + " SELECT s.code, s.name, s.price_eur, COALESCE(s.is_available, true) AS is_available, row_number() OVER (ORDER BY s.line) - 1 AS n"
+            + " FROM products_staging s WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.code = s.code)"
+            + "), blocks AS ("
+            + " SELECT b, nextval('products_id_seq') AS last_id"
+            + " FROM generate_series(0, (SELECT (count(*) + " + (Product.ID_ALLOCATION_SIZE - 1) + ") / " + Product.ID_ALLOCATION_SIZE + " - 1 FROM new_rows)) AS b"
+            + ")"
+            + " INSERT INTO products (id, code, name, price_eur, is_available)"
+            + " SELECT blocks.last_id - " + (Product.ID_ALLOCATION_SIZE - 1) + " + n % " + Product.ID_ALLOCATION_SIZE + ", code, name, price_eur, is_available"
+            + " FROM new_rows JOIN blocks ON blocks.b = n / " + Product.ID_ALLOCATION_SIZE
+            + " ON CONFLICT (code) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    /**
+     * Rows between two progress log lines
+     */
+    @Value("${products.load.progress-interval:100000}")
+    private long progressInterval;
+
+    /**
+     * Running or last finished load, null before the first one
+     */
+    private final AtomicReference<ProductLoadResponse> lastLoad = new AtomicReference<>();
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLoadService.class);
+
+    /**
+     * @return Running or last finished load, null if none was started
+     */
+    public ProductLoadResponse getLastLoad() {
+        return lastLoad.get();
+    }
+
+    /**
+     * Loads products from a stream in one transaction
+     * @param input CSV with header row or NDJSON
+     * @param format Input format
+     * @return Report with phase DONE and merge counts, or FAILED with errors
+     */
+    public ProductLoadResponse load(final InputStream input, final ProductExportService.Format format) {
+        final ProductLoadResponse report = new ProductLoadResponse();
+        final ProductLoadResponse running = lastLoad.get();
+        if (running != null && running.getFinishedAt() == null || !lastLoad.compareAndSet(running, report)) {
+            report.addError("Another load is running.");
+            report.setPhase(ProductLoadResponse.Phase.FAILED);
+            return report;
+        }
+
+        log.info("Starting {} bulk load.", format);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(CREATE_STAGING);
+                report.setCopied(jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, input, format, report)));
+                log.info("Copied {} rows, merging.", report.getCopied());
+                report.setPhase(ProductLoadResponse.Phase.MERGING);
+                merge(report);
+            });
+        } catch (RuntimeException e) {
+            log.error("Bulk load failed after {} rows: {}", report.getCopied(), e.getMessage());
+            report.addError("Load failed, no products were changed: " + rootMessage(e));
+            report.setPhase(ProductLoadResponse.Phase.FAILED);
+            return report;
+        }
+
+        evictCaches();
+        report.setPhase(ProductLoadResponse.Phase.DONE);
+        log.info("Bulk load done: {} inserted, {} updated, {} unchanged, {} rejected, {} duplicates.",
+                report.getInserted(), report.getUpdated(), report.getUnchanged(), report.getRejected(), report.getDuplicates());
+        return report;
+    }
+
+    /**
+     * Validates staged rows and merges them into products
+     */
+    private void merge(final ProductLoadResponse report) {
+        // autovacuum never analyzes temporary tables, without statistics the joins below get nested loop plans
+        jdbcTemplate.execute("ANALYZE products_staging");
+        report.setRejected(jdbcTemplate.update(REJECT_INVALID));
+        report.setDuplicates(jdbcTemplate.update(DROP_DUPLICATES));
+        final long existing = jdbcTemplate.queryForObject(COUNT_EXISTING, Long.class);
+        report.setUpdated(jdbcTemplate.update(UPDATE_EXISTING));
+        report.setUnchanged(existing - report.getUpdated());
+        report.setInserted(jdbcTemplate.update(INSERT_NEW));
+        jdbcTemplate.execute("ANALYZE products");
+    }
+
+    /**
+     * Streams the input into the staging table
+     * @return Number of copied rows
+     */
+    private long copy(final Connection connection, final InputStream input, final ProductExportService.Format format,
+                      final ProductLoadResponse report) throws SQLException {
+        final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            return format == ProductExportService.Format.CSV ? copyCsv(copyManager, input, report) : copyNdjson(copyManager, input, report);
+        } catch (IOException e) {
+            throw new SQLException("Could not read load input: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Passes CSV through unchanged after mapping its header to staging columns
+     */
+    private long copyCsv(final CopyManager copyManager, final InputStream input, final ProductLoadResponse report) throws SQLException, IOException {
+        final List<String> columns = new ArrayList<>();
+        for (final String name : readLine(input).split(",")) {
+            final String column = CSV_COLUMNS.get(name.trim().replace("\"", "").toLowerCase(Locale.ROOT));
+            if (column == null) {
+                throw new SQLException("Unknown CSV column: " + name.trim() + ".");
+            }
+            columns.add(column);
+        }
+        if (!columns.contains("code")) {
+            throw new SQLException("CSV header must contain a code column.");
+        }
+        final String sql = "COPY products_staging (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)";
+        return copyManager.copyIn(sql, new ProgressInputStream(input, report));
+    }
+
+    /**
+     * Converts every NDJSON row to a CSV line for COPY
+     */
+    private long copyNdjson(final CopyManager copyManager, final InputStream input, final ProductLoadResponse report) throws SQLException, IOException {
+        final CopyIn copyIn = copyManager.copyIn("COPY products_staging (code, name, price_eur, is_available) FROM STDIN (FORMAT csv)");
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            final StringBuilder line = new StringBuilder(128);
+            long count = 0;
+            while (rows.hasNextValue()) {
+                final JsonNode row = rows.nextValue();
+                line.setLength(0);
+                line.append(ProductExportService.csvField(text(row, "code"))).append(',')
+                        .append(ProductExportService.csvField(text(row, "name"))).append(',')
+                        .append(ProductExportService.csvField(text(row, "priceEur"))).append(',')
+                        .append(ProductExportService.csvField(text(row, row.has("available") ? "available" : "isAvailable"))).append('\n');
+                final byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                progress(report, ++count);
+            }
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Drops everything Hibernate and the controller cached about products
+     */
+    private void evictCaches() {
+        entityManagerFactory.getCache().evict(Product.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        productJsonCache.clear();
+    }
+
+    private void progress(final ProductLoadResponse report, final long rows) {
+        report.setCopied(rows);
+        if (rows % progressInterval == 0) {
+            log.info("Copied {} rows.", rows);
+        }
+    }
+
+    /**
+     * @return JSON value as text, null if missing or null
+     */
+    private static String text(final JsonNode row, final String field) {
+        final JsonNode value = row.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Reads the header line byte by byte so the rest of the stream is left for COPY
+     */
+    private static String readLine(final InputStream input) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = input.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String rootMessage(final Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * Counts CSV lines passing to COPY for progress reporting, quoted line breaks are counted too
+     */
+    private final class ProgressInputStream extends FilterInputStream {
+
+        private final ProductLoadResponse report;
+
+        private long lines;
+
+        ProgressInputStream(final InputStream input, final ProductLoadResponse report) {
+            super(input);
+            this.report = report;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            for (int i = offset; i < offset + read; i++) {
+                if (buffer[i] == '\n') {
+                    progress(report, ++lines);
+                }
+            }
+            return read;
+        }
+    }
+}
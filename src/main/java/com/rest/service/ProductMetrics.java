@@ -0,0 +1,113 @@
+package com.rest.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters of the product listing path, registered once at startup
+ * <p>
+ * Meters:
+ * - {@code products.listing.phase{phase=parse|query|count|convert}}: time spent in each phase of one listing
+ * - {@code products.listing.results{result=ok|empty|invalid|error}}: listing outcomes
+ * <p>
+ * Endpoint latency is published by Spring Boot as {@code http.server.requests} and repository calls as
+ * {@code spring.data.repository.invocations}; histogram buckets of all of them are set in application.properties.
+ *
+ * @see ProductService#getAllProducts For the measured phases
+ */
+@Component
+public class ProductMetrics {
+
+    /**
+     * Metrics that record nothing, for services built outside a Spring context
+     */
+    public static final ProductMetrics NOOP = new ProductMetrics(new CompositeMeterRegistry());
+
+    /**
+     * Steps of one listing request
+     */
+    public enum Phase {
+        /** Currency selection, filter, sort and cursor parsing */
+        PARSE,
+        /** Page query */
+        QUERY,
+        /** Exact or estimated total */
+        COUNT,
+        /** Entity to DTO conversion including the rate lookup */
+        CONVERT
+    }
+
+    /**
+     * Outcome of one listing request
+     */
+    public enum Result {
+        /** Products returned */
+        OK,
+        /** Valid request without matches */
+        EMPTY,
+        /** Rejected currency, filter, sort or cursor */
+        INVALID,
+        /** Query failed */
+        ERROR
+    }
+
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+
+    private final Map<Result, Counter> results = new EnumMap<>(Result.class);
+
+    @Autowired
+    public ProductMetrics(final MeterRegistry registry) {
+        for (final Phase phase : Phase.values()) {
+            phases.put(phase, Timer.builder("products.listing.phase")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .description("Time spent in one phase of a product listing")
+                    .register(registry));
+        }
+        for (final Result result : Result.values()) {
+            results.put(result, Counter.builder("products.listing.results")
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .description("Product listings by outcome")
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param phase Measured phase
+     * @param work Phase body, exceptions propagate after the time is recorded
+     * @return Result of the work
+     */
+    public <T> T time(final Phase phase, final Supplier<T> work) {
+        return phases.get(phase).record(work);
+    }
+
+    /**
+     * @return Sample to be stopped with {@link #stop(Timer.Sample, Phase)} when a phase has several exits
+     */
+    public Timer.Sample start() {
+        return Timer.start();
+    }
+
+    /**
+     * @param sample Sample from {@link #start()}
+     * @param phase Measured phase
+     */
+    public void stop(final Timer.Sample sample, final Phase phase) {
+        sample.stop(phases.get(phase));
+    }
+
+    /**
+     * @param result Outcome of a finished listing
+     */
+    public void count(final Result result) {
+        results.get(result).increment();
+    }
+}
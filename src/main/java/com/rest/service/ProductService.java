@@ -1,25 +1,23 @@
 package com.rest.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rest.converter.ProductDtoConverter;
+import com.rest.converter.RateTable;
 import com.rest.dto.ProductDto;
 import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
 import com.rest.repository.ProductRepository;
+import com.rest.web.response.ProductListing;
 import com.rest.web.response.ProductResponse;
-import jakarta.persistence.criteria.Predicate;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.util.Pair;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
-import java.text.DecimalFormat;
 import java.util.*;
 
 /**
@@ -27,9 +25,12 @@ import java.util.*;
  * <p>
  * Key Features:
  * - CRUD operations with JPA repository integration
- * - Dynamic filtering using JSON query parameters
- * - Pagination and sorting support
+ * - Typed, index-friendly filtering using JSON query parameters (see {@link ProductFilter}),
+ *   validated before any query and run as cached compiled plans
+ * - Offset or keyset (cursor) pagination and sorting support, total count only on request
+ * - Listings are projected straight into DTOs, no entities are loaded for them
  * - Currency conversion integration
+ * - Read path progress logged at DEBUG only, outcomes are counted by {@link ProductMetrics}
  *
  * @see ProductRepository For database interactions
  * @see ProductDtoConverter For DTO/entity transformations
@@ -55,46 +56,120 @@ public class ProductService {
     @Autowired
     private ProductDtoConverter productDtoConverter;
 
+    /**
+     * Phase timers and outcome counters of listings
+     */
+    @Autowired
+    private ProductMetrics productMetrics = ProductMetrics.NOOP;
+
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
 
-    private final ObjectMapper jsonMapper = new ObjectMapper();
 
-    private long totalItems = 0;
+    /**
+     * How the total number of matching products is obtained for a listing
+     */
+    public enum TotalCount {
+        /** No count, clients page with hasNext */
+        NONE,
+        /** Exact SELECT count(*) with the same filters */
+        EXACT,
+        /** PostgreSQL planner statistics for unfiltered listings, exact count when filtered */
+        ESTIMATE;
+
+        /**
+         * @param withTotal Request parameter value: true, estimate, false or null
+         * @return Matching mode, NONE for anything unrecognized
+         */
+        public static TotalCount of(final String withTotal) {
+            if ("true".equalsIgnoreCase(withTotal)) {
+                return EXACT;
+            }
+            if ("estimate".equalsIgnoreCase(withTotal)) {
+                return ESTIMATE;
+            }
+            return NONE;
+        }
+    }
 
     /**
      * Retrieves paginated/filtered products with USD pricing
      * @param page Zero-based page index (0+) 
      * @param pageSize Number of items per page (1-100)
-     * @param sort Sorting criteria in format: property(,asc|desc)
-     * @param filter JSON filter object (e.g. {"name":"widget", "available":true})
-     * @return Pair containing:
-     *         - ProductResponse with DTOs or errors
-     *         - Total items count for pagination
-     * @throws org.springframework.data.mapping.PropertyReferenceException For invalid sort/filter fields
+     * @param sort Sorting criteria in format: property(,asc|desc), ignored when a cursor is given
+     * @param filter JSON filter object (e.g. {"name":{"prefix":"wid"}, "isAvailable":true})
+     * @param currency Comma separated ISO codes of additional price currencies (e.g. GBP,CHF), may be null
+     * @param after Cursor returned as nextCursor by the previous page, may be null; replaces page when given
+     * @param totalCount Whether and how to count all matching products
+     * @return ProductListing containing:
+     *         - ProductResponse with DTOs, hasNext flag and nextCursor, or errors
+     *         - Total items count of this query, -1 if not requested
+     *         - Outcome telling found products, no match, invalid input and failed queries apart
+     * @implNote Stateless: everything a request produces travels in the returned listing, so concurrent calls never share counts
      */
-    public Pair<ProductResponse, Long> getAllProducts(final Integer page, final Integer pageSize, final String sort, final String filter) {
-        log.info("Fetching all products from repository");
+    public ProductListing getAllProducts(final Integer page, final Integer pageSize, final String sort, final String filter, final String currency,
+                                                      final String after, final TotalCount totalCount) {
+        log.debug("Fetching all products from repository");
         final ProductResponse productResponse = new ProductResponse();
-        List<Product> allProducts = new LinkedList<>();
+        final Timer.Sample parsing = productMetrics.start();
+        final RateTable.Selection currencies;
+        try {
+            currencies = selectCurrencies(currency);
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid currency: {}", e.getMessage());
+            productResponse.addError(e.getMessage());
+            productMetrics.count(ProductMetrics.Result.INVALID);
+            return ProductListing.rejected(ProductListing.Outcome.INVALID, productResponse);
+        }
+
+        final Pageable pageable;
+        final ProductCursor cursor;
+        final ProductFilter filters;
+        try {
+            filters = ProductFilter.parse(filter);
+            if (after == null || after.isBlank()) {
+                pageable = PageRequest.of(page, pageSize, ProductCursor.parseSort(sort));
+                cursor = null;
+            } else {
+                cursor = ProductCursor.decode(after);
+                pageable = PageRequest.of(0, pageSize, cursor.getSort());
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid filter or paging: {}", e.getMessage());
+            productResponse.addError(e.getMessage());
+            productMetrics.count(ProductMetrics.Result.INVALID);
+            return ProductListing.rejected(ProductListing.Outcome.INVALID, productResponse);
+        }
+        productMetrics.stop(parsing, ProductMetrics.Phase.PARSE);
+
+        final List<ProductDto> productDtos;
+        final ProductListing counted;
         try {
-            allProducts.addAll(findAllProducts(page, pageSize, sort, filter));
+            final Slice<ProductDto> slice = productMetrics.time(ProductMetrics.Phase.QUERY, () -> productRepository.findDtoSlice(filters, cursor, pageable));
+            counted = productMetrics.time(ProductMetrics.Phase.COUNT, () -> countProducts(productResponse, filters, totalCount));
+            productDtos = slice.getContent();
+            productResponse.setHasNext(slice.hasNext());
+            if (slice.hasNext() && pageable.getSort().isSorted()) {
+                productResponse.setNextCursor(ProductCursor.after(pageable.getSort(), productDtos.get(productDtos.size() - 1)).encode());
+            }
         } catch (Exception e) {
             log.error("Error fetching products: {}", e.getMessage());
             productResponse.addError("Error fetching products. Please check logs.");
-            return Pair.of(productResponse, totalItems);
+            productMetrics.count(ProductMetrics.Result.ERROR);
+            return ProductListing.rejected(ProductListing.Outcome.FAILED, productResponse);
         }
 
-        if (allProducts.isEmpty()) {
-            log.info("No products found.");
+        if (productDtos.isEmpty()) {
+            log.debug("No products found.");
             productResponse.addError("No products found.");
-            return Pair.of(productResponse, totalItems);
+            productMetrics.count(ProductMetrics.Result.EMPTY);
+            return counted.notFound();
         }
 
-        final Double usdRate = usdConvertService.findUSDRate();
-        List<ProductDto> productDtos = productDtoConverter.convertToDto(allProducts, usdRate);
-        productResponse.setProducts(productDtos);
-        log.info("Fetched all products.");
-        return Pair.of(productResponse, totalItems);
+        productResponse.setProducts(productMetrics.time(ProductMetrics.Phase.CONVERT,
+                () -> productDtoConverter.addPrices(productDtos, usdConvertService.findUSDRate(), currencies)));
+        productMetrics.count(ProductMetrics.Result.OK);
+        log.debug("Fetched all products.");
+        return counted;
     }
 
     /**
@@ -105,20 +180,20 @@ public class ProductService {
      */
     public ProductResponse getProduct(final Long id) {
         if (id == null) {
-            log.error("Id is null.");
+            log.debug("Id is null.");
             return new ProductResponse(Collections.singletonList("Id is null."));
         }
         if (id <= 0) {
-            log.error("Id must be a positive number");
+            log.debug("Id must be a positive number");
             return new ProductResponse(Collections.singletonList("Id must be a positive number"));
         }
 
-        log.info("Fetching product with ID: {}", id);
+        log.debug("Fetching product with ID: {}", id);
         final ProductResponse productResponse = new ProductResponse();
         Optional<Product> product = productRepository.findById(id);
 
         if (product.isEmpty()) {
-            log.info("No product found.");
+            log.debug("No product found.");
             productResponse.addError("No product found.");
             return productResponse;
         }
@@ -126,67 +201,74 @@ public class ProductService {
         final Double usdRate = usdConvertService.findUSDRate();
         ProductDto productDto = productDtoConverter.convert(product.get(), usdRate);
         productResponse.addProduct(productDto);
-        log.info("Product found.");
+        log.debug("Product found.");
         return productResponse;
     }
 
     /**
      * Creates new product with duplicate code prevention
      * @param productDto Input must have unique code and valid price
-     * @return ProductResponse with created DTO or errors
-     * @apiNote Price is rounded to 2 decimal places before persistence
+     * @return ProductResponse with created DTO and its generated ID, or errors
+     * @implNote One INSERT ... ON CONFLICT DO NOTHING round trip, so concurrent requests with the same code
+     *           get the "already exists" error instead of a constraint violation
+     * @apiNote Price is already exact to the cent, see {@link com.rest.dto.Money}
      */
     public ProductResponse addProduct(final ProductDto productDto) {
         if (Objects.isNull(productDto)) {
             log.error("Product is null.");
             return new ProductResponse(Collections.singletonList("Product is null."));
         }
-        if (productRepository.existsByCode(productDto.getCode())) {
+
+        log.info("Adding product to database.");
+        final Long id = productRepository.insertIfAbsent(productDtoConverter.convert(productDto));
+        if (id == null) {
             log.error("Product with code {} already exists.", productDto.getCode());
             return new ProductResponse(Collections.singletonList("Product with code " + productDto.getCode() + " already exists."));
         }
-
-        log.info("Adding product to database.");
         final ProductResponse productResponse = new ProductResponse();
-        DecimalFormat df = new DecimalFormat("#.##");
-        productDto.setPriceEur(Double.valueOf(df.format(productDto.getPriceEur())));
-        Product product = productDtoConverter.convert(productDto);
-        productRepository.save(product);
+        productDto.setId(id);
+        productDto.setVersion(0L);
         productResponse.addProduct(productDto);
         log.info("Product added.");
         return productResponse;
     }
 
     /**
-     * Finds all products with pagination and optional filtering.
-     *
-     * @param page     Zero-based page index (0+)
-     * @param pageSize Number of items per page (1-100)
-     * @param sort     Sorting criteria in format: property(,asc|desc)
-     * @param filter   JSON filter object (e.g. {"name":"widget", "available":true})
-     * @return List of products matching filter criteria
+     * Resolves requested currencies against the held HNB rate table
+     * @param currency Comma separated ISO codes, may be null or blank
+     * @return Selection in request order without duplicates
+     * @throws IllegalArgumentException If a currency is not published by HNB
      */
-    private List<Product> findAllProducts(final Integer page, final Integer pageSize, final String sort, final String filter) {
-        totalItems = 0;
-        Specification<Product> filters = null;
-        if (filter != null && !"{}".equals(filter)) {
-            try {
-                final Map<String, String> filterObject = jsonMapper.readValue(filter, Map.class);
-                filters = (root, query, criteriaBuilder) -> {
-                    List<Predicate> predicates = new ArrayList<>();
-                    for (final Map.Entry<String, String> entry : filterObject.entrySet()) {
-                        Predicate predicate = criteriaBuilder.like(root.get(entry.getKey()),"%" + entry.getValue() + "%");
-                        predicates.add(predicate);
-                    }
-                    return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
-                };
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+    private RateTable.Selection selectCurrencies(final String currency) {
+        if (currency == null || currency.isBlank()) {
+            return RateTable.Selection.NONE;
+        }
+        final Set<String> codes = new LinkedHashSet<>();
+        for (final String code : currency.split(",")) {
+            if (!code.isBlank()) {
+                codes.add(code.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        return usdConvertService.findRates().select(List.copyOf(codes));
+    }
+
+    /**
+     * Counts products only when the client asked for a total
+     * @param productResponse Response the total belongs to
+     * @param filters Parsed filter, {@link ProductFilter#NONE} for all products
+     * @param totalCount Requested counting mode
+     * @return Listing with exact total, estimate or no total if not requested
+     */
+    private ProductListing countProducts(final ProductResponse productResponse, final ProductFilter filters, final TotalCount totalCount) {
+        if (totalCount == TotalCount.NONE) {
+            return ProductListing.withoutTotal(productResponse);
+        }
+        if (totalCount == TotalCount.ESTIMATE && filters.isEmpty()) {
+            final long estimate = productRepository.estimateCount();
+            if (estimate >= 0) {
+                return new ProductListing(productResponse, estimate, true);
             }
         }
-        Pageable pageable = PageRequest.of(page, pageSize, Sort.by(sort));
-        Page<Product> allProducts = productRepository.findAll(filters, pageable);
-        totalItems = allProducts.getTotalElements();
-        return allProducts.getContent();
+        return new ProductListing(productResponse, productRepository.countMatching(filters), false);
     }
 }
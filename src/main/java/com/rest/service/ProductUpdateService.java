@@ -0,0 +1,258 @@
+package com.rest.service;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.ProductDto;
+import com.rest.dto.ProductPatch;
+import com.rest.entity.Product;
+import com.rest.repository.ProductRepository;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductChange;
+import com.rest.web.response.ProductResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Replaces, partially updates and deletes products with optimistic concurrency
+ * <p>
+ * Key Features:
+ * - Products are loaded through the second-level cache, a batch with one multi-id load instead of one SELECT each
+ * - A change naming a version is rejected with {@link ProductChange.Outcome#CONFLICT} if the product was modified since,
+ *   writes racing between load and commit are caught by the version check in the UPDATE itself
+ * - Only changed columns are written ({@code @DynamicUpdate}), unchanged products cause no statement at all
+ * - A batch is applied in one transaction, all or nothing
+ * - Entity and listing caches are kept current by Hibernate, pre-serialized responses are evicted after commit
+ *
+ * @see ProductService For reads and creation
+ */
+@Service
+public class ProductUpdateService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDtoConverter productDtoConverter;
+
+    @Autowired
+    private UsdConvertService usdConvertService;
+
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Most products changed by one batch PATCH
+     */
+    @Value("${products.update.max-batch-size:1000}")
+    private int maxBatchSize = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductUpdateService.class);
+
+    /**
+     * Replaces all stored fields of a product
+     * @param id Existing product ID
+     * @param productDto Validated product data, optionally with the expected version
+     * @return Change with the stored product and its new version, or the reason of rejection
+     */
+    public ProductChange replaceProduct(final long id, final ProductDto productDto) {
+        return patchProducts(List.of(ProductPatch.replacing(id, productDto)));
+    }
+
+    /**
+     * Changes the given fields of a product
+     * @param id Existing product ID
+     * @param patch Fields to change, optionally with the expected version
+     * @return Change with the stored product and its new version, or the reason of rejection
+     */
+    public ProductChange patchProduct(final long id, final ProductPatch patch) {
+        return patchProducts(List.of(patch.withId(id)));
+    }
+
+    /**
+     * Changes many products in one transaction
+     * @param patches Changes with ids, each product at most once
+     * @return Change with the stored products in request order, or the reasons of rejection; nothing is written on rejection
+     */
+    public ProductChange patchProducts(final List<ProductPatch> patches) {
+        final List<String> errors = validate(patches);
+        if (!errors.isEmpty()) {
+            log.debug("Invalid product change: {}", errors);
+            return ProductChange.rejected(ProductChange.Outcome.INVALID, errors);
+        }
+
+        final List<Long> ids = patches.stream().map(ProductPatch::id).toList();
+        log.info("Updating {} product(s).", ids.size());
+        final List<Product> changed = new ArrayList<>(ids.size());
+        final ProductChange rejection;
+        try {
+            rejection = transactionTemplate.execute(status -> {
+                final List<Product> products = productRepository.findAllInOrder(ids);
+                final ProductChange stale = checkVersions(ids, products, patches);
+                if (stale != null) {
+                    status.setRollbackOnly();
+                    return stale;
+                }
+                for (int i = 0; i < patches.size(); i++) {
+                    apply(products.get(i), patches.get(i));
+                }
+                productRepository.flush();
+                changed.addAll(products);
+                return null;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Concurrent product change: {}", e.getMessage());
+            return ProductChange.rejected(ProductChange.Outcome.CONFLICT, "Product was changed concurrently, reload and retry.");
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Product change violates a constraint: {}", e.getMessage());
+            return ProductChange.rejected(ProductChange.Outcome.INVALID, duplicateCodeError(patches));
+        } finally {
+            ids.forEach(productJsonCache::evict);
+        }
+        if (rejection != null) {
+            return rejection;
+        }
+
+        final Double usdRate = usdConvertService.findUSDRate();
+        final ProductResponse productResponse = new ProductResponse();
+        for (final Product product : changed) {
+            productResponse.addProduct(productDtoConverter.convert(product, usdRate));
+        }
+        log.info("Products updated.");
+        return ProductChange.applied(productResponse);
+    }
+
+    /**
+     * Deletes a product
+     * @param id Existing product ID
+     * @param version Expected version, null to delete unconditionally
+     * @return Applied change without products, or the reason of rejection
+     */
+    public ProductChange deleteProduct(final long id, final Long version) {
+        if (id <= 0) {
+            return ProductChange.rejected(ProductChange.Outcome.INVALID, "Id must be a positive number");
+        }
+
+        log.info("Deleting product {}.", id);
+        final ProductChange rejection;
+        try {
+            rejection = transactionTemplate.execute(status -> {
+                final List<Long> ids = List.of(id);
+                final List<Product> products = productRepository.findAllInOrder(ids);
+                final ProductChange stale = checkVersions(ids, products, List.of(new ProductPatch(id, null, null, null, null, version)));
+                if (stale != null) {
+                    status.setRollbackOnly();
+                    return stale;
+                }
+                productRepository.delete(products.get(0));
+                productRepository.flush();
+                return null;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Concurrent product change: {}", e.getMessage());
+            return ProductChange.rejected(ProductChange.Outcome.CONFLICT, "Product was changed concurrently, reload and retry.");
+        } finally {
+            productJsonCache.evict(id);
+        }
+        if (rejection != null) {
+            return rejection;
+        }
+        log.info("Product deleted.");
+        return ProductChange.applied(new ProductResponse());
+    }
+
+    /**
+     * @return Errors of missing ids or stale versions, null if all products can be changed
+     */
+    private static ProductChange checkVersions(final List<Long> ids, final List<Product> products, final List<ProductPatch> patches) {
+        final List<String> missing = new ArrayList<>();
+        final List<String> stale = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            final Product product = products.get(i);
+            final Long expected = patches.get(i).version();
+            if (product == null) {
+                missing.add("No product found with id " + ids.get(i) + ".");
+            } else if (expected != null && !expected.equals(product.getVersion())) {
+                stale.add("Product " + ids.get(i) + " has version " + product.getVersion() + ", not " + expected + ".");
+            }
+        }
+        if (!missing.isEmpty()) {
+            return ProductChange.rejected(ProductChange.Outcome.NOT_FOUND, missing);
+        }
+        if (!stale.isEmpty()) {
+            return ProductChange.rejected(ProductChange.Outcome.CONFLICT, stale);
+        }
+        return null;
+    }
+
+    /**
+     * Copies the given fields, Hibernate writes only those that actually differ
+     */
+    private static void apply(final Product product, final ProductPatch patch) {
+        if (patch.code() != null) {
+            product.setCode(patch.code());
+        }
+        if (patch.name() != null) {
+            product.setName(patch.name());
+        }
+        if (patch.priceEur() != null) {
+            product.setPriceEur(patch.priceEur());
+        }
+        if (patch.available() != null) {
+            product.setAvailable(patch.available());
+        }
+    }
+
+    /**
+     * @return Bean validation, id and batch size errors prefixed by the position in the batch, empty if all changes are valid
+     */
+    private List<String> validate(final List<ProductPatch> patches) {
+        if (patches == null || patches.isEmpty()) {
+            return List.of("No product changes given.");
+        }
+        if (patches.size() > maxBatchSize) {
+            return List.of("At most " + maxBatchSize + " products can be changed at once.");
+        }
+        final List<String> errors = new ArrayList<>();
+        final Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < patches.size(); i++) {
+            final String prefix = patches.size() > 1 ? "Change " + (i + 1) + ": " : "";
+            final ProductPatch patch = patches.get(i);
+            if (patch == null || patch.id() == null) {
+                errors.add(prefix + "Product id is required.");
+                continue;
+            }
+            if (!ids.add(patch.id())) {
+                errors.add(prefix + "Product " + patch.id() + " is changed more than once.");
+            }
+            validator.validate(patch).stream().map(ConstraintViolation::getMessage).sorted()
+                    .forEach(message -> errors.add(prefix + message));
+        }
+        return errors;
+    }
+
+    /**
+     * @return Error naming the code when a single change sets one
+     */
+    private static String duplicateCodeError(final List<ProductPatch> patches) {
+        final List<String> codes = patches.stream().map(ProductPatch::code).filter(Objects::nonNull).toList();
+        if (codes.size() == 1) {
+            return "Product with code " + codes.get(0) + " already exists.";
+        }
+        return "A product with one of the given codes already exists.";
+    }
+}
@@ -0,0 +1,224 @@
+package com.rest.service;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.converter.RateTable;
+import com.rest.dto.ProductDto;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ReactiveProductRepository;
+import com.rest.web.response.ProductListing;
+import com.rest.web.response.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+/**
+ * Non-blocking counterpart of {@link ProductService} for the reactive stack
+ * <p>
+ * Same validation, paging, filtering, counting and error messages as the blocking service, but every database
+ * and HNB access is a {@link Mono}, so no request thread waits on I/O:
+ * - Listing page and total count run concurrently on separate R2DBC connections
+ * - Prices of one response are converted with a single rate table snapshot
+ * - DTOs are built by the same {@link ProductDtoConverter}
+ *
+ * @see ReactiveProductRepository For database interactions
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    /**
+     * R2DBC repository for product persistence operations
+     */
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    /**
+     * Service for finding HNB exchange rates without blocking
+     */
+    @Autowired
+    private ReactiveUsdConvertService usdConvertService;
+
+    /**
+     * Converter for DTO/entity transformations
+     */
+    @Autowired
+    private ProductDtoConverter productDtoConverter;
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProductService.class);
+
+    /**
+     * Retrieves paginated/filtered products with USD pricing
+     * @param page Zero-based page index (0+)
+     * @param pageSize Number of items per page (1-100)
+     * @param sort Sorting criteria in format: property(,asc|desc), ignored when a cursor is given
+     * @param filter JSON filter object (e.g. {"name":{"prefix":"wid"}, "isAvailable":true})
+     * @param currency Comma separated ISO codes of additional price currencies (e.g. GBP,CHF), may be null
+     * @param after Cursor returned as nextCursor by the previous page, may be null; replaces page when given
+     * @param totalCount Whether and how to count all matching products
+     * @return ProductListing with products or errors, never an error signal
+     * @see ProductService#getAllProducts For the blocking variant
+     */
+    public Mono<ProductListing> getAllProducts(final Integer page, final Integer pageSize, final String sort, final String filter, final String currency,
+                                               final String after, final ProductService.TotalCount totalCount) {
+        log.debug("Fetching all products from repository");
+        return usdConvertService.findRatesAsync().flatMap(rates -> {
+            final ProductResponse productResponse = new ProductResponse();
+            final RateTable.Selection currencies;
+            try {
+                currencies = selectCurrencies(rates, currency);
+            } catch (IllegalArgumentException e) {
+                log.debug("Invalid currency: {}", e.getMessage());
+                productResponse.addError(e.getMessage());
+                return Mono.just(ProductListing.rejected(ProductListing.Outcome.INVALID, productResponse));
+            }
+
+            final Pageable pageable;
+            final ProductCursor cursor;
+            final ProductFilter filters;
+            try {
+                filters = ProductFilter.parse(filter);
+                if (after == null || after.isBlank()) {
+                    pageable = PageRequest.of(page, pageSize, ProductCursor.parseSort(sort));
+                    cursor = null;
+                } else {
+                    cursor = ProductCursor.decode(after);
+                    pageable = PageRequest.of(0, pageSize, cursor.getSort());
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Invalid filter or paging: {}", e.getMessage());
+                productResponse.addError(e.getMessage());
+                return Mono.just(ProductListing.rejected(ProductListing.Outcome.INVALID, productResponse));
+            }
+
+            return productRepository.findDtoSlice(filters, cursor, pageable)
+                    .zipWith(countProducts(productResponse, filters, totalCount))
+                    .map(sliceAndCount -> {
+                        final Slice<ProductDto> slice = sliceAndCount.getT1();
+                        final List<ProductDto> productDtos = slice.getContent();
+                        if (productDtos.isEmpty()) {
+                            log.debug("No products found.");
+                            productResponse.addError("No products found.");
+                            return sliceAndCount.getT2().notFound();
+                        }
+                        productResponse.setHasNext(slice.hasNext());
+                        if (slice.hasNext() && pageable.getSort().isSorted()) {
+                            productResponse.setNextCursor(ProductCursor.after(pageable.getSort(), productDtos.get(productDtos.size() - 1)).encode());
+                        }
+                        productResponse.setProducts(productDtoConverter.addPrices(productDtos, usdConvertService.findUSDRate(rates), currencies));
+                        log.debug("Fetched all products.");
+                        return sliceAndCount.getT2();
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error fetching products: {}", e.getMessage());
+                        final ProductResponse failed = new ProductResponse();
+                        failed.addError("Error fetching products. Please check logs.");
+                        return Mono.just(ProductListing.rejected(ProductListing.Outcome.FAILED, failed));
+                    });
+        });
+    }
+
+    /**
+     * Finds product by ID with validation
+     * @param id Must be > 0 and exist in database
+     * @return ProductResponse with single DTO or error
+     */
+    public Mono<ProductResponse> getProduct(final Long id) {
+        if (id == null) {
+            log.debug("Id is null.");
+            return Mono.just(new ProductResponse(Collections.singletonList("Id is null.")));
+        }
+        if (id <= 0) {
+            log.debug("Id must be a positive number");
+            return Mono.just(new ProductResponse(Collections.singletonList("Id must be a positive number")));
+        }
+
+        log.debug("Fetching product with ID: {}", id);
+        return productRepository.findById(id)
+                .zipWith(usdConvertService.findRatesAsync(), (product, rates) -> {
+                    final ProductResponse productResponse = new ProductResponse();
+                    productResponse.addProduct(productDtoConverter.convert(product, usdConvertService.findUSDRate(rates)));
+                    log.debug("Product found.");
+                    return productResponse;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.debug("No product found.");
+                    return new ProductResponse(Collections.singletonList("No product found."));
+                }));
+    }
+
+    /**
+     * Creates new product with duplicate code prevention
+     * @param productDto Input must have unique code and valid price
+     * @return ProductResponse with created DTO and its generated ID, or errors
+     */
+    public Mono<ProductResponse> addProduct(final ProductDto productDto) {
+        if (Objects.isNull(productDto)) {
+            log.error("Product is null.");
+            return Mono.just(new ProductResponse(Collections.singletonList("Product is null.")));
+        }
+
+        log.info("Adding product to database.");
+        return productRepository.insertIfAbsent(productDtoConverter.convert(productDto))
+                .map(product -> {
+                    final ProductResponse productResponse = new ProductResponse();
+                    productDto.setId(product.getId());
+                    productDto.setVersion(product.getVersion());
+                    productResponse.addProduct(productDto);
+                    log.info("Product added.");
+                    return productResponse;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.error("Product with code {} already exists.", productDto.getCode());
+                    return new ProductResponse(Collections.singletonList("Product with code " + productDto.getCode() + " already exists."));
+                }));
+    }
+
+    /**
+     * Resolves requested currencies against a rate table snapshot
+     * @param rates Table the whole response is converted with
+     * @param currency Comma separated ISO codes, may be null or blank
+     * @return Selection in request order without duplicates
+     * @throws IllegalArgumentException If a currency is not published by HNB
+     */
+    private static RateTable.Selection selectCurrencies(final RateTable rates, final String currency) {
+        if (currency == null || currency.isBlank()) {
+            return RateTable.Selection.NONE;
+        }
+        final Set<String> codes = new LinkedHashSet<>();
+        for (final String code : currency.split(",")) {
+            if (!code.isBlank()) {
+                codes.add(code.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        return rates.select(List.copyOf(codes));
+    }
+
+    /**
+     * Counts products only when the client asked for a total
+     * @param productResponse Response the total belongs to
+     * @param filters Parsed filter, {@link ProductFilter#NONE} for all products
+     * @param totalCount Requested counting mode
+     * @return Listing with exact total, estimate or no total if not requested
+     */
+    private Mono<ProductListing> countProducts(final ProductResponse productResponse, final ProductFilter filters, final ProductService.TotalCount totalCount) {
+        if (totalCount == ProductService.TotalCount.NONE) {
+            return Mono.just(ProductListing.withoutTotal(productResponse));
+        }
+        final Mono<ProductListing> exact = Mono.defer(() -> productRepository.countMatching(filters))
+                .map(total -> new ProductListing(productResponse, total, false));
+        if (totalCount == ProductService.TotalCount.ESTIMATE && filters.isEmpty()) {
+            return productRepository.estimateCount()
+                    .flatMap(estimate -> estimate >= 0 ? Mono.just(new ProductListing(productResponse, estimate, true)) : exact);
+        }
+        return exact;
+    }
+}
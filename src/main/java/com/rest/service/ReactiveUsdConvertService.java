@@ -0,0 +1,135 @@
+package com.rest.service;
+
+import com.rest.converter.RateTable;
+import com.rest.dto.ExchangeRates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rate service of the reactive stack: same held table, metrics and cold retry rules as
+ * {@link BlockingUsdConvertService}, but HNB is called through a non-blocking {@link WebClient} and no caller ever
+ * waits on a thread.
+ * <p>
+ * Differences:
+ * - {@link #findRatesAsync()} completes when the held table is available, without blocking an event loop
+ * - {@link #findRates()} never waits: while no table is held it starts a load and returns {@link RateTable#EMPTY}
+ * - Concurrent loads are collapsed into one shared HNB call
+ *
+ * @see com.rest.client.HnbReactiveClientConfiguration For the WebClient
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUsdConvertService extends UsdConvertService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveUsdConvertService.class);
+
+    /**
+     * Non-blocking client for HNB API
+     */
+    @Autowired
+    private WebClient hnbWebClient;
+
+    /**
+     * Load in flight, shared by every reader arriving while it runs
+     */
+    private final AtomicReference<Mono<RateTable>> loading = new AtomicReference<>();
+
+    /**
+     * Returns the held HNB rate table, loading it first if none is held yet
+     * @return Held or newly loaded table, {@link RateTable#EMPTY} if HNB is unavailable
+     * @apiNote Within {@code hnb.rates.cold-retry-interval} after a failed load completes immediately with EMPTY
+     */
+    public Mono<RateTable> findRatesAsync() {
+        final long start = System.nanoTime();
+        final RateTable held = findHeldRates();
+        if (held != null || isColdRetryPending()) {
+            recordLookup(start);
+            return Mono.just(held == null ? RateTable.EMPTY : held);
+        }
+        return load().defaultIfEmpty(RateTable.EMPTY).doFinally(signal -> recordLookup(start));
+    }
+
+    /**
+     * Returns the held table without waiting for HNB
+     * @return Held table, or {@link RateTable#EMPTY} while the first load is still running
+     */
+    @Override
+    public RateTable findRates() {
+        final long start = System.nanoTime();
+        final RateTable held = findHeldRates();
+        if (held == null && !isColdRetryPending()) {
+            load().subscribe();
+        }
+        recordLookup(start);
+        return held == null ? RateTable.EMPTY : held;
+    }
+
+    /**
+     * Periodically reloads the rate from HNB without waiting for it
+     */
+    @Scheduled(initialDelayString = "${hnb.rates.initial-delay:PT0S}", fixedDelayString = "${hnb.rates.refresh-interval:PT1H}")
+    public void scheduledRefresh() {
+        load().subscribe();
+    }
+
+    @Override
+    protected void refreshInBackground() {
+        load().subscribe();
+    }
+
+    /**
+     * @return Load in flight, or a new one; emits the new table or completes empty if HNB failed
+     */
+    private Mono<RateTable> load() {
+        while (true) {
+            final Mono<RateTable> current = loading.get();
+            if (current != null) {
+                return current;
+            }
+            // not subscribed before it is published, so it cannot complete and clear itself before the swap
+            final Mono<RateTable> created = fetch().doFinally(signal -> loading.set(null)).cache();
+            if (loading.compareAndSet(null, created)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Fetches the full current EUR rate list from HNB API in one call and holds it on success
+     */
+    private Mono<RateTable> fetch() {
+        log.info("Finding exchange rates.");
+        return hnbWebClient.get()
+                .uri("/tecajn-eur/v3")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<ExchangeRates>>() {
+                })
+                .filter(rates -> !rates.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Exchange rates not found.")))
+                .map(RateTable::of)
+                .doOnNext(rates -> {
+                    hold(rates);
+                    log.info("Found exchange rates. Bulletin: {}, USD rate: {}", rates.getVersion(), rates.findRate("USD"));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error finding exchange rates.", e);
+                    hold(null);
+                    if (!hasHeldRates()) {
+                        deferColdRetry();
+                    }
+                    return Mono.empty();
+                });
+    }
+}
@@ -1,69 +1,259 @@
 package com.rest.service;
 
-import com.rest.dto.ExchangeRates;
+import com.rest.converter.RateTable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Service handling EUR->USD conversion using daily exchange rates from HNB API.
+ * EUR->USD (and other currency) conversion rates from HNB API, held in memory.
  * <p>
  * Features:
- * - Real-time rate fetching from HNB API (https://api.hnb.hr)
- * - Fallback to 1.0 rate when API unavailable
- * - Audit logging of conversion operations
+ * - Full rate list held as one immutable {@link RateTable}
+ * - Stale-while-revalidate reads, so request latency does not depend on HNB
+ * - Last known good rate is kept when a refresh fails; 1.0 is used only if no rate was ever loaded
+ * - Pause of {@code hnb.rates.cold-retry-interval} after a failed first load, so readers do not each call HNB
+ * - Pause of {@code hnb.rates.refresh-retry-interval} after a failed refresh, so stale reads do not each call HNB
+ * - Hit/miss/refresh-age metrics exposed through Micrometer
+ * <p>
+ * How HNB is called is up to the stack: {@link BlockingUsdConvertService} uses the pooled RestTemplate,
+ * {@link ReactiveUsdConvertService} a non-blocking WebClient.
  */
-@Service
-public class UsdConvertService {
+public abstract class UsdConvertService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UsdConvertService.class);
 
     /**
-     * Logger instance for tracking API calls and conversion operations
+     * Rate returned when HNB has never answered successfully
      */
-    private static final Logger log = LoggerFactory.getLogger(UsdConvertService.class);
+    private static final Double DEFAULT_RATE = 1.0;
 
     /**
-     * REST client configured for HNB API communication
+     * Currency code of the rate exposed by {@link #findUSDRate()}
      */
-    @Autowired
-    private RestTemplate restTemplate;
+    protected static final String USD = "USD";
 
     /**
-     * Fetches latest EUR->USD exchange rate from HNB API
-     * @return Current exchange rate or 1.0 if unavailable
-     * @throws org.springframework.dao.InvalidDataAccessApiUsageException If API returns malformed data
-     * @throws org.springframework.web.client.ResourceAccessException If API endpoint is unreachable
-     * @apiNote Rates are not cached - calls external API directly. Consider rate limiting
-     *          when using in high-frequency scenarios.
+     * Age after which the held rate is served stale and refreshed in the background
+     */
+    @Value("${hnb.rates.max-age:PT1H}")
+    private Duration maxAge = Duration.ofHours(1);
+
+    /**
+     * Pause after a failed cold-start load during which readers get {@link RateTable#EMPTY} without calling HNB
+     */
+    @Value("${hnb.rates.cold-retry-interval:PT30S}")
+    private Duration coldRetryInterval = Duration.ofSeconds(30);
+
+    /**
+     * Pause after a failed refresh during which stale reads do not start another one
+     */
+    @Value("${hnb.rates.refresh-retry-interval:PT30S}")
+    private Duration refreshRetryInterval = Duration.ofSeconds(30);
+
+    /**
+     * Last successfully fetched rate, null until the first successful fetch
+     */
+    private final AtomicReference<CachedRate> cachedRate = new AtomicReference<>();
+
+    /**
+     * {@link System#nanoTime()} before which no cold-start load is attempted
+     */
+    private volatile long coldRetryAt = System.nanoTime();
+
+    /**
+     * {@link System#nanoTime()} before which stale reads start no background refresh
+     */
+    private volatile long refreshRetryAt = System.nanoTime();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Latency of rate table reads, set once meters are bound
+     */
+    private volatile Timer lookupTimer;
+
+    /**
+     * Returns latest known EUR->USD exchange rate without calling HNB on the read path
+     * @return Held exchange rate, or 1.0 if HNB never returned a USD rate
+     * @see #findRates() For caching behaviour
      */
     public Double findUSDRate() {
-        log.info("Finding USD rate.");
-        String url = "https://api.hnb.hr/tecajn-eur/v3?valuta=USD";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        return findUSDRate(findRates());
+    }
+
+    /**
+     * @param rates Rate table snapshot, e.g. the one currencies of the same response were selected from
+     * @return EUR->USD exchange rate of the table, or 1.0 if it has none
+     */
+    public Double findUSDRate(final RateTable rates) {
+        final Double rate = rates.findRate(USD);
+        if (rate == null) {
+            log.debug("USD rate was not found. Defaulting to 1.");
+            fallbacks.increment();
+            return DEFAULT_RATE;
+        }
+        return rate;
+    }
+
+    /**
+     * Returns latest known HNB rate table
+     * @return Held table, or {@link RateTable#EMPTY} if HNB never returned rates
+     */
+    public abstract RateTable findRates();
+
+    /**
+     * Starts a refresh without waiting for it
+     */
+    protected abstract void refreshInBackground();
 
-        try {
-            final ResponseEntity<List<ExchangeRates>> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {
-            });
+    /**
+     * Records the latency of a rate table read
+     * @param start {@link System#nanoTime()} when the read began
+     */
+    protected void recordLookup(final long start) {
+        final Timer timer = lookupTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            if (response.getBody() == null || response.getStatusCode() != HttpStatus.OK) {
-                throw new RuntimeException("USD Rate not found.");
+    /**
+     * Reads the held table, counting the read as hit, stale hit or miss
+     * @return Held table, or null if HNB never returned rates
+     * @apiNote A table older than {@code hnb.rates.max-age} triggers {@link #refreshInBackground()}, unless a refresh
+     *          failed less than {@code hnb.rates.refresh-retry-interval} ago
+     */
+    protected RateTable findHeldRates() {
+        final CachedRate current = cachedRate.get();
+        if (current == null) {
+            misses.increment();
+            return null;
+        }
+        if (current.isOlderThan(maxAge)) {
+            staleHits.increment();
+            if (!isRefreshRetryPending()) {
+                refreshInBackground();
             }
+        } else {
+            hits.increment();
+        }
+        return current.rates();
+    }
 
-            final List<ExchangeRates> rates = response.getBody();
-            log.info("Found USD rate. Rate: " + rates.get(0).getSrednji_tecaj());
-            final String srednji_tecaj = rates.get(0).getSrednji_tecaj().replace(",", ".");
-            return Double.parseDouble(srednji_tecaj);
-        } catch (Exception e) {
-            log.error("Error finding USD rate.", e);
+    /**
+     * Replaces the held table with a freshly fetched one
+     * @param rates Fetched table, null if the fetch failed
+     * @return true if the held table was replaced
+     * @apiNote A failed fetch pauses background refreshes for {@code hnb.rates.refresh-retry-interval}
+     */
+    protected boolean hold(final RateTable rates) {
+        if (rates == null) {
+            refreshFailures.increment();
+            refreshRetryAt = System.nanoTime() + refreshRetryInterval.toNanos();
+            return false;
         }
+        cachedRate.set(new CachedRate(rates, Instant.now()));
+        return true;
+    }
+
+    /**
+     * @return Held table without counting a read, null if HNB never returned rates
+     */
+    protected RateTable peekRates() {
+        final CachedRate current = cachedRate.get();
+        return current == null ? null : current.rates();
+    }
+
+    /**
+     * @return true once HNB returned a rate table, without counting a read
+     */
+    protected boolean hasHeldRates() {
+        return cachedRate.get() != null;
+    }
+
+    /**
+     * @return true while a failed cold-start load must not be retried
+     */
+    protected boolean isColdRetryPending() {
+        return System.nanoTime() - coldRetryAt < 0;
+    }
 
-        log.info("USD rate was not found. Defaulting to 1.");
-        return 1.0;
+    /**
+     * @return true while stale reads must not start a background refresh after a failed one
+     */
+    protected boolean isRefreshRetryPending() {
+        return System.nanoTime() - refreshRetryAt < 0;
+    }
+
+    /**
+     * Blocks cold-start loads for {@code hnb.rates.cold-retry-interval} after a failure
+     */
+    protected void deferColdRetry() {
+        coldRetryAt = System.nanoTime() + coldRetryInterval.toNanos();
+    }
+
+    /**
+     * Allows the next cold-start load right away, e.g. for a scheduled attempt
+     */
+    protected void allowColdRetry() {
+        coldRetryAt = System.nanoTime();
+    }
+
+    /**
+     * Registers rate cache metrics:
+     * - hnb.rate.requests (result=hit|stale|miss)
+     * - hnb.rate.refresh.failures
+     * - hnb.rate.fallbacks: USD rate reads answered with 1.0
+     * - hnb.rate.lookup: latency of rate table reads, including cold-start loads
+     * - hnb.rate.age: time since the held rate was fetched
+     * HNB calls themselves are timed as http.client.requests with the HNB host as client.name
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("hnb.rate.requests", hits, LongAdder::sum).tag("result", "hit")
+                .description("Rate reads served from memory").register(registry);
+        FunctionCounter.builder("hnb.rate.requests", staleHits, LongAdder::sum).tag("result", "stale")
+                .description("Rate reads served stale while refreshing").register(registry);
+        FunctionCounter.builder("hnb.rate.requests", misses, LongAdder::sum).tag("result", "miss")
+                .description("Rate reads with no rate held").register(registry);
+        FunctionCounter.builder("hnb.rate.refresh.failures", refreshFailures, LongAdder::sum)
+                .description("Failed HNB rate refreshes").register(registry);
+        FunctionCounter.builder("hnb.rate.fallbacks", fallbacks, LongAdder::sum)
+                .description("USD rate reads answered with the default rate").register(registry);
+        lookupTimer = Timer.builder("hnb.rate.lookup")
+                .description("Latency of rate table reads").register(registry);
+        TimeGauge.builder("hnb.rate.age", cachedRate, TimeUnit.MILLISECONDS, ref -> {
+                    final CachedRate current = ref.get();
+                    return current == null ? Double.NaN : Duration.between(current.fetchedAt(), Instant.now()).toMillis();
+                })
+                .description("Time since the held rate was fetched from HNB").register(registry);
+    }
+
+    /**
+     * Rate table held in memory together with the time it was fetched
+     * @param rates HNB rate table
+     * @param fetchedAt Time of successful fetch
+     */
+    private record CachedRate(RateTable rates, Instant fetchedAt) {
+
+        boolean isOlderThan(final Duration maxAge) {
+            return !fetchedAt.plus(maxAge).isAfter(Instant.now());
+        }
     }
 }
@@ -0,0 +1,181 @@
+package com.rest.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rest.service.UsdConvertService;
+import com.rest.web.response.ProductResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Serialized GET /api/product/{id} responses, ready to be written as they are
+ * <p>
+ * Features:
+ * - Entries hold the final JSON bytes and a strong ETag derived from them
+ * - Every entry remembers the HNB rate table version it was rendered with and is ignored once rates change
+ * - Bounded by total body size, Caffeine evicts rarely used entries first
+ * - Entries of changed or deleted products are evicted once the change is committed. Every eviction also bumps a
+ *   write stamp of the id, and a response is only stored if the stamp it was read under is unchanged, so a read that
+ *   saw the old row right before the commit cannot store it after the eviction
+ *
+ * @see com.rest.controller.ProductController#getProduct For conditional request handling
+ * @see com.rest.service.ProductUpdateService For eviction on PUT, PATCH and DELETE
+ */
+@Component
+public class ProductJsonCache {
+
+    /**
+     * Cached response body
+     * @param rateVersion HNB bulletin the USD price was converted with
+     * @param body JSON bytes of the ProductResponse
+     * @param etag Strong entity tag, quoted
+     */
+    public record Entry(String rateVersion, byte[] body, String etag) {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsdConvertService usdConvertService;
+
+    /**
+     * Write stamps are kept per stripe of ids, a collision only costs a skipped store
+     */
+    private static final int STAMP_STRIPES = 1024;
+
+    /**
+     * Entries by product id
+     */
+    private final Cache<Long, Entry> entries;
+
+    /**
+     * Evictions so far by id stripe
+     */
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public ProductJsonCache(@Value("${products.json-cache.max-size:16MB}") final DataSize maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, Entry entry) -> entry.body().length)
+                .build();
+    }
+
+    /**
+     * @return Version of the rate table product prices are currently converted with
+     */
+    public String currentRateVersion() {
+        return usdConvertService.findRates().getVersion();
+    }
+
+    /**
+     * @param id Product ID
+     * @param rateVersion Current rate version
+     * @return Entry rendered with this rate version, or null
+     */
+    public Entry get(final long id, final String rateVersion) {
+        final Entry entry = entries.getIfPresent(id);
+        return entry != null && entry.rateVersion().equals(rateVersion) ? entry : null;
+    }
+
+    /**
+     * @param id Product ID
+     * @return Write stamp to read the product under, passed to {@link #put}
+     */
+    public long stamp(final long id) {
+        return stamps.get(stripe(id));
+    }
+
+    /**
+     * Serializes a successful response and keeps it unless rates changed while it was built or the product was
+     * evicted since its stamp was taken
+     * @param id Product ID
+     * @param rateVersion Rate version read before the response was built
+     * @param stamp Write stamp taken before the product was read
+     * @param productResponse Response without errors
+     * @return Entry to send
+     */
+    public Entry put(final long id, final String rateVersion, final long stamp, final ProductResponse productResponse) {
+        final byte[] body = serialize(productResponse);
+        final Entry entry = new Entry(rateVersion, body, etagOf(body));
+        if (rateVersion.equals(currentRateVersion())) {
+            entries.asMap().compute(id, (key, current) -> stamps.get(stripe(id)) == stamp ? entry : current);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops the entry of a changed or deleted product and turns away responses read before
+     * @param id Product ID
+     */
+    public void evict(final long id) {
+        entries.asMap().compute(id, (key, current) -> {
+            stamps.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+
+    /**
+     * Drops all entries, e.g. after bulk changes
+     */
+    public void clear() {
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        entries.invalidateAll();
+    }
+
+    /**
+     * @param productResponse Response to write
+     * @return JSON bytes
+     */
+    public byte[] serialize(final ProductResponse productResponse) {
+        try {
+            return objectMapper.writeValueAsBytes(productResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Product response is not serializable.", e);
+        }
+    }
+
+    /**
+     * Checks an If-None-Match header against an entity tag using weak comparison (RFC 9110)
+     * @param ifNoneMatch Header value, may be null
+     * @param etag Quoted strong entity tag
+     * @return True if the client already has this representation
+     */
+    public static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripe(final long id) {
+        return (int) Math.floorMod(id, (long) STAMP_STRIPES);
+    }
+
+    private static String etagOf(final byte[] body) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
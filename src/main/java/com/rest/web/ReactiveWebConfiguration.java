@@ -0,0 +1,88 @@
+package com.rest.web;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpRequest;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.netty.NettyPipeline;
+
+/**
+ * Web server of the reactive stack.
+ * <p>
+ * Tomcat stays on the classpath for the servlet stack and would otherwise be picked as the reactive server too,
+ * running WebFlux through the Servlet adapter. Reactor Netty serves requests on a small fixed set of event loop
+ * threads, which is what lets one instance hold many concurrent slow clients.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfiguration {
+
+    /**
+     * @return Reactor Netty server factory, customized by the usual server.* properties
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        final NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.doOnChannelInit((observer, channel, remoteAddress) -> {
+            if (channel.pipeline().get(NettyPipeline.HttpCodec) != null) {
+                channel.pipeline().addAfter(NettyPipeline.HttpCodec, RelaxedQueryHandler.NAME, RelaxedQueryHandler.INSTANCE);
+            }
+        }));
+        return factory;
+    }
+
+    /**
+     * Percent-encodes characters that {@link java.net.URI} rejects in the query string, such as the braces and
+     * quotes of unencoded JSON filters. Same leniency as {@code server.tomcat.relaxed-query-chars} on the servlet stack,
+     * where WebFlux would answer 400 before any handler runs.
+     */
+    @ChannelHandler.Sharable
+    static final class RelaxedQueryHandler extends ChannelInboundHandlerAdapter {
+
+        static final String NAME = "relaxedQuery";
+
+        static final RelaxedQueryHandler INSTANCE = new RelaxedQueryHandler();
+
+        private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+            if (msg instanceof HttpRequest request) {
+                request.setUri(relax(request.uri()));
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        /**
+         * @param uri Request target as received
+         * @return Same target with illegal query characters percent-encoded, the original string if there are none
+         */
+        static String relax(final String uri) {
+            final int query = uri.indexOf('?');
+            if (query < 0) {
+                return uri;
+            }
+            StringBuilder relaxed = null;
+            for (int i = query + 1; i < uri.length(); i++) {
+                final char c = uri.charAt(i);
+                if (isIllegal(c)) {
+                    if (relaxed == null) {
+                        relaxed = new StringBuilder(uri.length() + 16).append(uri, 0, i);
+                    }
+                    relaxed.append('%').append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+                } else if (relaxed != null) {
+                    relaxed.append(c);
+                }
+            }
+            return relaxed == null ? uri : relaxed.toString();
+        }
+
+        private static boolean isIllegal(final char c) {
+            return c <= ' ' || c >= 0x7F || "\"<>\\^`{|}[]".indexOf(c) >= 0;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.rest.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Correlation id for every request, available to log lines as MDC key {@value #MDC_KEY}
+ * <p>
+ * A well-formed {@value #HEADER} from the caller (e.g. a gateway) is kept, otherwise a random id is generated.
+ * The id is echoed in the response header so clients can quote it. The MDC entry is removed when the request
+ * completes, so pooled threads never carry a stale id into the next request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    /**
+     * Request and response header carrying the id
+     */
+    public static final String HEADER = "X-Request-Id";
+
+    /**
+     * MDC key, printed by the log pattern and included in JSON logs
+     */
+    public static final String MDC_KEY = "requestId";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String requestId = requestIdOf(request.getHeader(HEADER));
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    /**
+     * @param header Incoming header value, may be null
+     * @return The header if it is a short token of letters, digits, '.', '_' or '-', otherwise a new 16 hex digit id
+     * @apiNote Ids from outside end up verbatim in log files, so anything that could forge log lines is replaced
+     */
+    static String requestIdOf(final String header) {
+        if (header != null && !header.isEmpty() && header.length() <= MAX_LENGTH && isToken(header)) {
+            return header;
+        }
+        final String id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0".repeat(16 - id.length()) + id;
+    }
+
+    private static boolean isToken(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
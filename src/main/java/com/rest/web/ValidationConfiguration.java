@@ -0,0 +1,47 @@
+package com.rest.web;
+
+import jakarta.validation.Path;
+import jakarta.validation.TraversableResolver;
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.annotation.ElementType;
+
+/**
+ * Bean validation settings for request DTOs.
+ * <p>
+ * With JPA on the classpath Hibernate Validator asks {@code Persistence.getPersistenceUtil()} whether every
+ * property is loaded, which scans the classpath for persistence providers on each validated object.
+ * DTOs are never lazy JPA proxies, so all properties are treated as reachable instead. This keeps
+ * {@code @Valid} request bodies and bulk imports from spending most of their time in class loading.
+ */
+@Configuration
+public class ValidationConfiguration {
+
+    /**
+     * @return Customizer installing a resolver that allows every property
+     */
+    @Bean
+    public ValidationConfigurationCustomizer traverseAllCustomizer() {
+        return configuration -> configuration.traversableResolver(new TraverseAll());
+    }
+
+    /**
+     * Treats every property as loaded and cascadable
+     */
+    static final class TraverseAll implements TraversableResolver {
+
+        @Override
+        public boolean isReachable(final Object traversableObject, final Path.Node traversableProperty, final Class<?> rootBeanType,
+                                   final Path pathToTraversableObject, final ElementType elementType) {
+            return true;
+        }
+
+        @Override
+        public boolean isCascadable(final Object traversableObject, final Path.Node traversableProperty, final Class<?> rootBeanType,
+                                    final Path pathToTraversableObject, final ElementType elementType) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rest.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings applied only when requests run on virtual threads ({@code spring.threads.virtual.enabled=true} on Java 21).
+ * <p>
+ * Jackson keeps its read/write buffers in a ThreadLocal by default. Platform worker threads live for the whole
+ * application and reuse them, but every request gets a fresh virtual thread, so each response would allocate and
+ * throw away new buffers. The application ObjectMapper therefore takes buffers from one shared lock-free pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    /**
+     * @return Customizer giving the application ObjectMapper a JsonFactory with a shared buffer pool
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sharedJsonBufferPoolCustomizer() {
+        return builder -> builder.factory(JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .build());
+    }
+}
@@ -0,0 +1,59 @@
+package com.rest.web.response;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a PUT, PATCH or DELETE request
+ * <p>
+ * Carries the outcome separately from the response body, so the controller can choose the status code:
+ * <ul>
+ *   <li>{@link #response} - Changed products, or errors</li>
+ *   <li>{@link #outcome} - Whether the change was applied and why not</li>
+ * </ul>
+ *
+ * @param response Changed products with their new versions, or errors
+ * @param outcome What happened to the change
+ */
+public record ProductChange(ProductResponse response, Outcome outcome) {
+
+    /**
+     * Why a change was or was not applied
+     */
+    public enum Outcome {
+        /** Change committed */
+        APPLIED,
+        /** Invalid input or duplicate code, nothing changed */
+        INVALID,
+        /** A product does not exist, nothing changed */
+        NOT_FOUND,
+        /** A product was modified since the given version, nothing changed */
+        CONFLICT
+    }
+
+    /**
+     * @param response Changed products
+     * @return Committed change
+     */
+    public static ProductChange applied(final ProductResponse response) {
+        return new ProductChange(response, Outcome.APPLIED);
+    }
+
+    /**
+     * @param outcome Reason of the rejection
+     * @param errors Messages for the client
+     * @return Rejected change
+     */
+    public static ProductChange rejected(final Outcome outcome, final List<String> errors) {
+        return new ProductChange(new ProductResponse(errors), outcome);
+    }
+
+    /**
+     * @param outcome Reason of the rejection
+     * @param error Message for the client
+     * @return Rejected change
+     */
+    public static ProductChange rejected(final Outcome outcome, final String error) {
+        return rejected(outcome, Collections.singletonList(error));
+    }
+}
@@ -0,0 +1,90 @@
+package com.rest.web.response;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Report of one bulk product import
+ * <p>
+ * Rows are counted from 1 in input order:
+ * <ul>
+ *   <li>{@link #imported} - Number of rows stored</li>
+ *   <li>{@link #rejected} - Number of rows skipped because of validation or duplicate code</li>
+ *   <li>{@link #rowErrors} - Reasons per rejected row, capped to keep the report small</li>
+ *   <li>{@link #errors} - Failures of the whole request, such as malformed input (non-empty indicates failure)</li>
+ * </ul>
+ */
+public class ProductImportResponse {
+
+    /**
+     * Problems of a single input row
+     * @param row Position in input, starting at 1
+     * @param code Product code if it could be read
+     * @param errors Descriptive error messages
+     */
+    public record RowError(long row, String code, List<String> errors) {
+    }
+
+    private long imported;
+
+    private long rejected;
+
+    private List<RowError> rowErrors = new LinkedList<>();
+
+    private List<String> errors = new LinkedList<>();
+
+    /**
+     * @return Number of rows stored
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * @param count Number of rows stored by one chunk
+     */
+    public void addImported(long count) {
+        this.imported += count;
+    }
+
+    /**
+     * @return Number of rows skipped
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Records a skipped row
+     * @param rowError Row position, code and reasons
+     * @param maxReported Number of row errors kept in the report, rows above it are only counted
+     */
+    public void reject(RowError rowError, int maxReported) {
+        rejected++;
+        if (rowErrors.size() < maxReported) {
+            rowErrors.add(rowError);
+        }
+    }
+
+    /**
+     * @return Reasons per rejected row, at most the configured number
+     */
+    public List<RowError> getRowErrors() {
+        return rowErrors;
+    }
+
+    /**
+     * @return Failures of the whole request
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Appends a request level error message
+     * @param error Descriptive error message
+     */
+    public void addError(String error) {
+        this.errors.add(error);
+    }
+}
@@ -0,0 +1,76 @@
+package com.rest.web.response;
+
+/**
+ * Result of one product listing request
+ * <p>
+ * Immutable and created per request, so the total always belongs to the same query as the products:
+ * <ul>
+ *   <li>{@link #response} - Products page, hasNext flag and cursor, or errors</li>
+ *   <li>{@link #totalItems} - Number of matching products, -1 if not counted</li>
+ *   <li>{@link #estimated} - Whether the total comes from planner statistics instead of count(*)</li>
+ *   <li>{@link #outcome} - Whether products were found and why not, so the controller can choose the status code</li>
+ * </ul>
+ *
+ * @param response Products page or errors
+ * @param totalItems Number of matching products, -1 if not counted
+ * @param estimated True if totalItems is approximate
+ * @param outcome What the listing found
+ */
+public record ProductListing(ProductResponse response, long totalItems, boolean estimated, Outcome outcome) {
+
+    /**
+     * Why a listing has or has not products
+     */
+    public enum Outcome {
+        /** Page of matching products */
+        FOUND,
+        /** Valid request matching no products */
+        NOT_FOUND,
+        /** Invalid currency, filter, sort or cursor, nothing queried */
+        INVALID,
+        /** Query failed */
+        FAILED
+    }
+
+    /**
+     * Listing of found products
+     * @param response Products page
+     * @param totalItems Number of matching products, -1 if not counted
+     * @param estimated True if totalItems is approximate
+     */
+    public ProductListing(final ProductResponse response, final long totalItems, final boolean estimated) {
+        this(response, totalItems, estimated, Outcome.FOUND);
+    }
+
+    /**
+     * Listing without total, used for requests that did not ask for a count
+     * @param response Products page
+     * @return Listing with totalItems -1
+     */
+    public static ProductListing withoutTotal(final ProductResponse response) {
+        return new ProductListing(response, -1, false);
+    }
+
+    /**
+     * @param outcome Reason of the rejection
+     * @param response Errors for the client
+     * @return Listing without products and total
+     */
+    public static ProductListing rejected(final Outcome outcome, final ProductResponse response) {
+        return new ProductListing(response, -1, false, outcome);
+    }
+
+    /**
+     * @return Same listing, total included, marked as matching no products
+     */
+    public ProductListing notFound() {
+        return new ProductListing(response, totalItems, estimated, Outcome.NOT_FOUND);
+    }
+
+    /**
+     * @return True if a total (exact or estimated) was computed
+     */
+    public boolean hasTotal() {
+        return totalItems >= 0;
+    }
+}
@@ -0,0 +1,185 @@
+package com.rest.web.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress and outcome of one COPY based bulk load
+ * <p>
+ * Updated by the loading thread while the load runs, so it can be polled for progress:
+ * <ul>
+ *   <li>{@link #phase} - Current step of the load</li>
+ *   <li>{@link #copied} - Rows streamed into the staging table so far</li>
+ *   <li>{@link #rejected}, {@link #duplicates} - Rows dropped before the merge</li>
+ *   <li>{@link #inserted}, {@link #updated}, {@link #unchanged} - Outcome of the merge on code</li>
+ *   <li>{@link #errors} - Failures of the whole load (non-empty indicates failure, nothing was changed)</li>
+ * </ul>
+ */
+public class ProductLoadResponse {
+
+    /**
+     * Steps of a load in execution order
+     */
+    public enum Phase {
+        /** Streaming input into the staging table */
+        COPYING,
+        /** Validating staged rows and merging them into products */
+        MERGING,
+        /** Committed */
+        DONE,
+        /** Rolled back */
+        FAILED
+    }
+
+    private final Instant startedAt = Instant.now();
+
+    private volatile Instant finishedAt;
+
+    private volatile Phase phase = Phase.COPYING;
+
+    private volatile long copied;
+
+    private volatile long rejected;
+
+    private volatile long duplicates;
+
+    private volatile long inserted;
+
+    private volatile long updated;
+
+    private volatile long unchanged;
+
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return Time the load was started
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return Time the load committed or failed, null while running
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return Current step
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Moves the load to the next step, DONE and FAILED also set the finish time
+     * @param phase Step entered
+     */
+    public void setPhase(Phase phase) {
+        if (phase == Phase.DONE || phase == Phase.FAILED) {
+            this.finishedAt = Instant.now();
+        }
+        this.phase = phase;
+    }
+
+    /**
+     * @return Rows streamed into the staging table
+     */
+    public long getCopied() {
+        return copied;
+    }
+
+    /**
+     * @param copied Rows streamed into the staging table
+     */
+    public void setCopied(long copied) {
+        this.copied = copied;
+    }
+
+    /**
+     * @return Rows without valid code, name or positive price
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @param rejected Rows without valid code, name or positive price
+     */
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return Rows superseded by a later row with the same code
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @param duplicates Rows superseded by a later row with the same code
+     */
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    /**
+     * @return New products
+     */
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * @param inserted New products
+     */
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    /**
+     * @return Existing products whose name, price or availability changed
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @param updated Existing products whose name, price or availability changed
+     */
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    /**
+     * @return Existing products already equal to their row
+     */
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @param unchanged Existing products already equal to their row
+     */
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * @return Failures of the whole load
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Appends an error message
+     * @param error Descriptive error message
+     */
+    public void addError(String error) {
+        this.errors.add(error);
+    }
+}
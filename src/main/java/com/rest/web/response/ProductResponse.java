@@ -1,5 +1,6 @@
 package com.rest.web.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.rest.dto.ProductDto;
 
 import java.util.LinkedList;
@@ -28,6 +29,30 @@ public class ProductResponse {
      * Adds a new product to the catalog */
     public static final String POST_URL = "/product";
 
+    /** Endpoint: PUT /product/{id}
+     * Replaces all fields of an existing product */
+    public static final String PUT_URL = "/product/{id}";
+
+    /** Endpoint: PATCH /product/{id}
+     * Changes the given fields of an existing product */
+    public static final String PATCH_URL = "/product/{id}";
+
+    /** Endpoint: DELETE /product/{id}
+     * Removes a product from the catalog */
+    public static final String DELETE_URL = "/product/{id}";
+
+    /** Endpoint: PATCH /products
+     * Changes many products in one transaction */
+    public static final String PATCH_ALL_URL = "/products";
+
+    /** Endpoint: POST /products/import
+     * Adds many products from a JSON array or NDJSON stream */
+    public static final String IMPORT_URL = "/products/import";
+
+    /** Endpoint: GET /products/export
+     * Streams the whole catalogue as NDJSON or CSV */
+    public static final String EXPORT_URL = "/products/export";
+
     /**
      * Error messages collection (non-empty indicates failure)
      * <p>
@@ -50,6 +75,22 @@ public class ProductResponse {
      */
     private List<ProductDto> products = new LinkedList<>();
 
+    /**
+     * Whether another page follows this one
+     * <p>
+     * Set only for paginated listings, omitted from JSON otherwise
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+
+    /**
+     * Opaque cursor for the following page, passed back as {@code after}
+     * <p>
+     * Set only when {@link #hasNext} is true
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     /**
      * Default constructor for empty response initialization
      */
@@ -121,4 +162,36 @@ public class ProductResponse {
     public void addProduct(ProductDto product) {
         this.products.add(product);
     }
+
+    /**
+     * Retrieves the next page indicator
+     * @return True if another page follows, null for non-listing responses
+     */
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Sets the next page indicator
+     * @param hasNext True if another page follows
+     */
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Retrieves the cursor of the following page
+     * @return Opaque cursor, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the cursor of the following page
+     * @param nextCursor Opaque cursor
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,63 @@
+package com.rest.app;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.jdbc.DataSourcePoolMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Settings of application-production.properties as bound to the Hikari pool, without connecting to a database
+ */
+class ProductionProfileTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class, MetricsAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class, DataSourcePoolMetricsAutoConfiguration.class))
+            .withPropertyValues("spring.datasource.url=jdbc:postgresql://localhost:5432/product", "spring.application.name=test");
+
+    @Test
+    void production_TunesPoolAndDriver() throws IOException {
+        contextRunner.withPropertyValues(profileProperties("production")).run(context -> {
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+            assertEquals("products", dataSource.getPoolName());
+            assertEquals(20, dataSource.getMaximumPoolSize());
+            assertEquals(20, dataSource.getMinimumIdle());
+            assertEquals(5000, dataSource.getConnectionTimeout());
+            assertEquals(1860000, dataSource.getLeakDetectionThreshold());
+            assertTrue(dataSource.getLeakDetectionThreshold() > Duration.ofMinutes(30).toMillis(), "above the export timeout");
+            assertTrue(dataSource.getLeakDetectionThreshold() <= dataSource.getMaxLifetime(), "not disabled by Hikari");
+            assertEquals("1", dataSource.getDataSourceProperties().getProperty("prepareThreshold"));
+            assertEquals("512", dataSource.getDataSourceProperties().getProperty("preparedStatementCacheQueries"));
+            assertEquals("true", dataSource.getDataSourceProperties().getProperty("reWriteBatchedInserts"));
+            assertEquals("test", dataSource.getDataSourceProperties().getProperty("ApplicationName"));
+        });
+    }
+
+    @Test
+    void poolMetrics_AreRecorded() {
+        contextRunner.run(context -> assertNotNull(context.getBean(HikariDataSource.class).getMetricsTrackerFactory(),
+                "hikaricp.connections.* timers need the Micrometer tracker"));
+    }
+
+    /**
+     * @return Entries of application-{profile}.properties as name=value pairs
+     */
+    private static String[] profileProperties(final String profile) throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-" + profile + ".properties"));
+        return properties.stringPropertyNames().stream()
+                .map(name -> name + "=" + properties.getProperty(name))
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,179 @@
+package com.rest.client;
+
+import com.rest.service.BlockingUsdConvertService;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the HNB client layer against a local stub HNB server
+ */
+class HnbClientConfigurationTest {
+
+    private static final String USD_RATES = "[{\"broj_tecajnice\":\"77\",\"datum_primjene\":\"2025-04-22\",\"drzava\":\"SAD\","
+            + "\"drzava_iso\":\"USA\",\"kupovni_tecaj\":\"1,0807\",\"prodajni_tecaj\":\"1,0839\",\"sifra_valute\":\"840\","
+            + "\"srednji_tecaj\":\"1,0823\",\"valuta\":\"USD\"}]";
+
+    private HttpServer stubHnb;
+
+    private final AtomicInteger stubCalls = new AtomicInteger();
+
+    private volatile int stubStatus = 200;
+
+    private volatile long stubDelayMillis = 0;
+
+    private volatile CountDownLatch stubGate = new CountDownLatch(0);
+
+    private final HnbClientProperties properties = new HnbClientProperties();
+
+    private final HnbClientConfiguration configuration = new HnbClientConfiguration();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubHnb = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubHnb.setExecutor(Executors.newCachedThreadPool());
+        stubHnb.createContext("/tecajn-eur/v3", exchange -> {
+            stubCalls.incrementAndGet();
+            try {
+                stubGate.await(5, TimeUnit.SECONDS);
+                Thread.sleep(stubDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final byte[] body = stubStatus == 200 ? USD_RATES.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(stubStatus, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubHnb.start();
+
+        properties.setBaseUrl("http://localhost:" + stubHnb.getAddress().getPort());
+        properties.setResponseTimeout(Duration.ofMillis(300));
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(3);
+        properties.getCircuitBreaker().setSlidingWindowSize(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubGate.countDown();
+        stubHnb.stop(0);
+    }
+
+    private RestTemplate restTemplate() {
+        return configuration.getRestTemplate(
+                configuration.hnbHttpClient(properties),
+                configuration.hnbCircuitBreakerRegistry(properties),
+                configuration.hnbBulkheadRegistry(properties),
+                ObservationRegistry.NOOP);
+    }
+
+    private String usdUrl() {
+        return properties.getBaseUrl() + "/tecajn-eur/v3?valuta=USD";
+    }
+
+    @Test
+    void usdConvertService_ReadsRateFromStub() {
+        BlockingUsdConvertService usdConvertService = new BlockingUsdConvertService();
+        ReflectionTestUtils.setField(usdConvertService, "restTemplate", restTemplate());
+        ReflectionTestUtils.setField(usdConvertService, "hnbClientProperties", properties);
+
+        assertEquals(1.0823, usdConvertService.findUSDRate());
+        assertEquals(1, stubCalls.get());
+    }
+
+    @Test
+    void unreachableUpstream_CostsColdReadersOneTimeout() throws Exception {
+        stubDelayMillis = 3000;
+        BlockingUsdConvertService usdConvertService = new BlockingUsdConvertService();
+        ReflectionTestUtils.setField(usdConvertService, "restTemplate", restTemplate());
+        ReflectionTestUtils.setField(usdConvertService, "hnbClientProperties", properties);
+        ExecutorService readers = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<Double>> rates = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                rates.add(readers.submit(() -> usdConvertService.findUSDRate()));
+            }
+            for (Future<Double> rate : rates) {
+                assertEquals(1.0, rate.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        long start = System.nanoTime();
+        assertEquals(1.0, usdConvertService.findUSDRate());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, stubCalls.get());
+        assertTrue(elapsedMillis < 50, "Read took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void slowUpstream_FailsWithinResponseTimeout() {
+        stubDelayMillis = 3000;
+        RestTemplate restTemplate = restTemplate();
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(usdUrl(), String.class));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2000, "Call took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void failingUpstream_OpensCircuit() {
+        stubStatus = 500;
+        RestTemplate restTemplate = restTemplate();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RestClientException.class, () -> restTemplate.getForObject(usdUrl(), String.class));
+        }
+        assertThrows(CallNotPermittedException.class, () -> restTemplate.getForObject(usdUrl(), String.class));
+        assertEquals(3, stubCalls.get());
+    }
+
+    @Test
+    void concurrentCalls_AreLimitedByBulkhead() throws Exception {
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.setResponseTimeout(Duration.ofSeconds(5));
+        stubGate = new CountDownLatch(1);
+        RestTemplate restTemplate = restTemplate();
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> restTemplate.getForObject(usdUrl(), String.class));
+        while (stubCalls.get() == 0) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(BulkheadFullException.class, () -> restTemplate.getForObject(usdUrl(), String.class));
+        stubGate.countDown();
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS));
+        assertNotNull(restTemplate.getForObject(usdUrl(), String.class));
+    }
+}
@@ -0,0 +1,113 @@
+package com.rest.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the resilience filter of the reactive HNB client against stubbed exchanges
+ */
+class HnbReactiveClientConfigurationTest {
+
+    /**
+     * Exchanges that reached the network, i.e. were subscribed to
+     */
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("hnb", CircuitBreakerConfig.custom()
+            .slidingWindowSize(3)
+            .minimumNumberOfCalls(3)
+            .build());
+
+    private final Bulkhead bulkhead = Bulkhead.of("hnb", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    private WebClient client(final Mono<ClientResponse> response) {
+        return WebClient.builder()
+                .baseUrl("http://hnb.test")
+                .exchangeFunction(request -> response.doOnSubscribe(subscription -> exchanges.incrementAndGet()))
+                .filter(HnbReactiveClientConfiguration.resilience(circuitBreaker, bulkhead))
+                .build();
+    }
+
+    private static Mono<String> get(final WebClient client) {
+        return client.get().uri("/tecajn-eur/v3").retrieve().bodyToMono(String.class);
+    }
+
+    @Test
+    void successfulExchange_IsRecordedAsSuccess() {
+        WebClient client = client(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK).body("[]").build()));
+
+        StepVerifier.create(get(client)).expectNext("[]").verifyComplete();
+
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void serverErrors_OpenCircuit() {
+        WebClient client = client(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(get(client)).expectError(WebClientResponseException.ServiceUnavailable.class).verify();
+        }
+        StepVerifier.create(get(client)).expectError(CallNotPermittedException.class).verify();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(3, exchanges.get());
+    }
+
+    @Test
+    void ioErrors_AreRecordedAsFailures() {
+        WebClient client = client(Mono.error(new IOException("Connection reset")));
+
+        StepVerifier.create(get(client)).expectError(IOException.class).verify();
+
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void clientErrors_AreNotFailures() {
+        WebClient client = client(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        StepVerifier.create(get(client)).expectError(WebClientResponseException.NotFound.class).verify();
+
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void concurrentExchanges_AreLimitedByBulkhead() {
+        Sinks.One<ClientResponse> pending = Sinks.one();
+        WebClient client = client(pending.asMono());
+
+        StepVerifier.create(get(client))
+                .then(() -> {
+                    StepVerifier.create(get(client)).expectError(BulkheadFullException.class).verify();
+                    assertEquals(1, exchanges.get());
+                    pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("[]").build());
+                })
+                .expectNext("[]")
+                .verifyComplete();
+
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+}
@@ -0,0 +1,81 @@
+package com.rest.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outcome accounting and cleanup of the blocking HNB interceptor against stubbed executions
+ */
+class HnbResilienceInterceptorTest {
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("hnb", CircuitBreakerConfig.custom()
+            .slidingWindowSize(3)
+            .minimumNumberOfCalls(3)
+            .build());
+
+    private final Bulkhead bulkhead = Bulkhead.of("hnb", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    private final HnbResilienceInterceptor interceptor = new HnbResilienceInterceptor(circuitBreaker, bulkhead);
+
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://hnb.test/tecajn-eur/v3"));
+
+    private final ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+    @Test
+    void statusReadFailure_IsRecordedOnceAndClosesResponse() throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenThrow(new IOException("connection reset"));
+        when(execution.execute(any(), any())).thenReturn(response);
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+
+        verify(response).close();
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void executionFailure_IsRecordedOnce() throws IOException {
+        when(execution.execute(any(), any())).thenThrow(new IOException("connect timed out"));
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void serverError_IsRecordedAsFailureAndHoldsSlotUntilClosed() throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE);
+        when(execution.execute(any(), any())).thenReturn(response);
+
+        ClientHttpResponse intercepted = interceptor.intercept(request, new byte[0], execution);
+
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        intercepted.close();
+        verify(response).close();
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+}
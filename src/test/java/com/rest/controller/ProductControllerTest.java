@@ -1,17 +1,36 @@
 package com.rest.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.converter.RateTable;
 import com.rest.dto.ProductDto;
+import com.rest.dto.ProductPatch;
 import com.rest.service.ProductService;
+import com.rest.service.ProductUpdateService;
+import com.rest.service.UsdConvertService;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductChange;
+import com.rest.web.response.ProductListing;
 import com.rest.web.response.ProductResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,18 +40,31 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private UsdConvertService usdConvertService;
+
+    @Mock
+    private ProductUpdateService productUpdateService;
+
     @InjectMocks
     private ProductController productController;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private ProductDto validDto;
     private ProductResponse successResponse;
     private ProductResponse errorResponse;
-    private Pair<ProductResponse, Long> okPair;
-    private Pair<ProductResponse, Long> badPair;
+    private ProductListing okListing;
+    private ProductListing badListing;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ProductJsonCache productJsonCache = new ProductJsonCache(DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(productJsonCache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(productJsonCache, "usdConvertService", usdConvertService);
+        ReflectionTestUtils.setField(productController, "productJsonCache", productJsonCache);
+        when(usdConvertService.findRates()).thenReturn(RateTable.EMPTY);
         
         validDto = new ProductDto(2,"123hdk738e", "Test Product", 99.99, 105.68, true);
         successResponse = new ProductResponse();
@@ -40,31 +72,86 @@ class ProductControllerTest {
         
         errorResponse = new ProductResponse();
         errorResponse.setErrors(Collections.singletonList("Validation error"));
-        okPair = Pair.of(successResponse, 0L);
-        badPair = Pair.of(errorResponse, 0L);
+        okListing = ProductListing.withoutTotal(successResponse);
+        badListing = ProductListing.withoutTotal(errorResponse).notFound();
     }
 
     @Test
-    void testGetProductById_Success() {
+    void testGetProductById_Success() throws IOException {
         when(productService.getProduct(1L)).thenReturn(successResponse);
         
-        ResponseEntity<ProductResponse> response = productController.getProduct(1L);
+        ResponseEntity<byte[]> response = productController.getProduct(1L, null);
         
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertNotNull(response.getBody().getProducts());
+        assertNotNull(response.getHeaders().getETag());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(1, body.get("products").size());
         verify(productService).getProduct(1L);
     }
 
     @Test
-    void testGetProductById_NotFound() {
+    void testGetProductById_ServedFromCache() {
+        when(productService.getProduct(1L)).thenReturn(successResponse);
+
+        ResponseEntity<byte[]> first = productController.getProduct(1L, null);
+        ResponseEntity<byte[]> second = productController.getProduct(1L, null);
+
+        assertArrayEquals(first.getBody(), second.getBody());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        verify(productService, times(1)).getProduct(1L);
+    }
+
+    @Test
+    void testGetProductById_NotModified() {
+        when(productService.getProduct(1L)).thenReturn(successResponse);
+        String etag = productController.getProduct(1L, null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> response = productController.getProduct(1L, "\"other\", W/" + etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testGetProductById_NotFound() throws IOException {
         when(productService.getProduct(999L)).thenReturn(errorResponse);
         
-        ResponseEntity<ProductResponse> response = productController.getProduct(999L);
+        ResponseEntity<byte[]> response = productController.getProduct(999L, null);
+        productController.getProduct(999L, null);
         
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertFalse(response.getBody().getErrors().isEmpty());
+        assertNull(response.getHeaders().getETag());
+        assertFalse(objectMapper.readTree(response.getBody()).get("errors").isEmpty());
+        verify(productService, times(2)).getProduct(999L);
+    }
+
+    @Test
+    void testExportProducts_InvalidFormat() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = productController.exportProducts("xml", "{}", new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals("Unknown export format: xml. Use ndjson or csv.", objectMapper.readTree(out.toByteArray()).get("errors").get(0).asText());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testExportProducts_RaisesAsyncTimeout() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(request, servletResponse);
+        asyncWebRequest.setTimeout(30_000L);
+        ServletWebRequest webRequest = new ServletWebRequest(request, servletResponse);
+        WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(asyncWebRequest);
+
+        ResponseEntity<StreamingResponseBody> response = productController.exportProducts("csv", "{}", webRequest);
+        asyncWebRequest.startAsync();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Duration.ofMinutes(30).toMillis(), request.getAsyncContext().getTimeout());
     }
 
     @Test
@@ -95,24 +182,98 @@ class ProductControllerTest {
     void testGetAllProducts_Success() {
         ProductDto dto2 = new ProductDto(2, "384jf84j", "Test Product 2", 149.99, 155.0, false);
         successResponse.addProduct(dto2);
-        when(productService.getAllProducts(0, 10, null, null)).thenReturn(okPair);
+        when(productService.getAllProducts(0, 10, null, null, null, null, ProductService.TotalCount.NONE)).thenReturn(okListing);
 
-        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null);
+        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null, null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().getProducts().size());
+        assertFalse(response.getHeaders().containsKey("totalItems"));
+    }
+
+    @Test
+    void testGetAllProducts_WithTotal() {
+        when(productService.getAllProducts(0, 10, null, null, null, null, ProductService.TotalCount.EXACT)).thenReturn(new ProductListing(successResponse, 2L, false));
+
+        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null, null, null, "true");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst("totalItems"));
     }
 
     @Test
     void testGetAllProducts_Empty() {
         successResponse.setProducts(Collections.emptyList());
-        when(productService.getAllProducts(0, 10, null, null)).thenReturn(badPair);
+        when(productService.getAllProducts(0, 10, null, null, null, null, ProductService.TotalCount.NONE)).thenReturn(badListing);
 
-        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null);
+        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null, null, null, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(0, response.getBody().getProducts().size());
     }
+
+    @Test
+    void testGetAllProducts_InvalidInput() {
+        when(productService.getAllProducts(0, 10, null, null, "XYZ", null, ProductService.TotalCount.NONE))
+                .thenReturn(ProductListing.rejected(ProductListing.Outcome.INVALID, errorResponse));
+
+        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null, "XYZ", null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Validation error", response.getBody().getErrors().get(0));
+    }
+
+    @Test
+    void testGetAllProducts_QueryFailed() {
+        when(productService.getAllProducts(0, 10, null, null, null, null, ProductService.TotalCount.NONE))
+                .thenReturn(ProductListing.rejected(ProductListing.Outcome.FAILED, errorResponse));
+
+        ResponseEntity<ProductResponse> response = productController.getAllProducts(0, 10, null, null, null, null, null);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void testPatchProduct_Applied() {
+        ProductPatch patch = new ProductPatch(null, null, null, null, false, 0L);
+        when(productUpdateService.patchProduct(2L, patch)).thenReturn(ProductChange.applied(successResponse));
+
+        ResponseEntity<ProductResponse> response = productController.patchProduct(2L, patch);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getProducts().size());
+    }
+
+    @Test
+    void testReplaceProduct_Conflict() {
+        when(productUpdateService.replaceProduct(2L, validDto))
+                .thenReturn(ProductChange.rejected(ProductChange.Outcome.CONFLICT, "Product 2 has version 1, not 0."));
+
+        ResponseEntity<ProductResponse> response = productController.replaceProduct(2L, validDto);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(1, response.getBody().getErrors().size());
+    }
+
+    @Test
+    void testDeleteProduct_NoContent() {
+        when(productUpdateService.deleteProduct(2L, null)).thenReturn(ProductChange.applied(new ProductResponse()));
+
+        ResponseEntity<ProductResponse> response = productController.deleteProduct(2L, null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testDeleteProduct_NotFound() {
+        when(productUpdateService.deleteProduct(9L, null))
+                .thenReturn(ProductChange.rejected(ProductChange.Outcome.NOT_FOUND, "No product found with id 9."));
+
+        ResponseEntity<ProductResponse> response = productController.deleteProduct(9L, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
 }
@@ -0,0 +1,94 @@
+package com.rest.controller;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Concurrent POST /api/product against the configured database: one atomic insert per request, so racing
+ * requests for the same code end in exactly one 201 and otherwise 400, never a 500 or a duplicate row
+ */
+@SpringBootTest(classes = SpringRestAppApplication.class)
+@AutoConfigureMockMvc
+class ProductCreationConcurrencyIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final String prefix = "R" + String.format("%06d", System.nanoTime() % 1_000_000L);
+
+    @AfterEach
+    void tearDown() {
+        productRepository.findAll().stream()
+                .filter(product -> product.getCode().startsWith(prefix))
+                .forEach(productRepository::delete);
+    }
+
+    @Test
+    void sameCode_InsertedExactlyOnce() throws Exception {
+        String code = prefix + "000";
+
+        Map<Integer, Long> statuses = postConcurrently(request -> code);
+
+        assertEquals(Map.of(201, 1L, 400, (long) THREADS - 1), statuses);
+        assertEquals(1, productRepository.findAll().stream().filter(product -> code.equals(product.getCode())).count());
+    }
+
+    @Test
+    void distinctCodes_AllInserted() throws Exception {
+        Map<Integer, Long> statuses = postConcurrently(request -> prefix + String.format("%03d", request));
+
+        assertEquals(Map.of(201, (long) THREADS), statuses);
+        assertEquals(THREADS, productRepository.findAll().stream().filter(product -> product.getCode().startsWith(prefix)).count());
+    }
+
+    /**
+     * @param codeOf Code to post by request number
+     * @return Number of responses by status
+     */
+    private Map<Integer, Long> postConcurrently(final Function<Integer, String> codeOf) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int request = 0; request < THREADS; request++) {
+                String body = "{\"code\":\"" + codeOf.apply(request) + "\",\"name\":\"Race\",\"priceEur\":2.5,\"available\":true}";
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/product").contentType(MediaType.APPLICATION_JSON).content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            return results.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.rest.controller;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ProductRepository;
+import com.rest.service.ProductService;
+import com.rest.service.UsdConvertService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Hammers GET /api/products from many threads with different filters and checks that
+ * every response carries the total of its own query
+ */
+class ProductListingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static final int REQUESTS = 2000;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        UsdConvertService usdConvertService = mock(UsdConvertService.class);
+        when(usdConvertService.findUSDRate()).thenReturn(1.0823);
+
+        // A filter {"name":"n<k>"} matches k products, the first page holds up to 3 of them
+        when(productRepository.findDtoSlice(any(), any(), any(Pageable.class))).thenAnswer(invocation -> {
+            int matches = matchesOf(invocation.getArgument(0));
+            Pageable pageable = invocation.getArgument(2);
+            List<ProductDto> products = new ArrayList<>();
+            for (int i = 0; i < Math.min(matches, pageable.getPageSize()); i++) {
+                products.add(new ProductDto((long) i + 1, "C" + matches + "x" + i, "n" + matches, Money.of(1.0 + i), true, 0L));
+            }
+            Thread.yield();
+            return new SliceImpl<>(products, pageable, matches > pageable.getPageSize());
+        });
+        when(productRepository.countMatching(any())).thenAnswer(invocation -> {
+            int matches = matchesOf(invocation.getArgument(0));
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            return (long) matches;
+        });
+
+        ProductDtoConverter productDtoConverter = new ProductDtoConverter();
+        ProductService productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productService, "usdConvertService", usdConvertService);
+        ReflectionTestUtils.setField(productService, "productDtoConverter", productDtoConverter);
+        ProductController productController = new ProductController();
+        ReflectionTestUtils.setField(productController, "productService", productService);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+    }
+
+    @Test
+    void parallelFilteredListings_KeepTheirOwnTotals() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> mismatches = new ArrayList<>();
+        try {
+            for (int request = 0; request < REQUESTS; request++) {
+                int matches = request % 97 + 1;
+                mismatches.add(executor.submit(() -> {
+                    start.await();
+                    MvcResult result = mockMvc.perform(get("/api/products")
+                                    .param("per_page", "3")
+                                    .param("withTotal", "true")
+                                    .param("filter", "{\"name\":\"n" + matches + "\"}"))
+                            .andReturn();
+                    String totalItems = result.getResponse().getHeader("totalItems");
+                    String body = result.getResponse().getContentAsString();
+                    boolean ok = result.getResponse().getStatus() == 200
+                            && String.valueOf(matches).equals(totalItems)
+                            && body.contains("\"hasNext\":" + (matches > 3))
+                            && body.contains("\"name\":\"n" + matches + "\"");
+                    return ok ? null : "filter n" + matches + " got totalItems=" + totalItems + " body=" + body;
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> mismatch : mismatches) {
+                assertNull(mismatch.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A filter {"name":"n<k>"} asks for k products
+     */
+    private static int matchesOf(final ProductFilter filter) {
+        return Integer.parseInt(((String) filter.getConditions().get(0).values().get(0)).substring(1));
+    }
+}
@@ -0,0 +1,212 @@
+package com.rest.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rest.app.SpringRestAppApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reactive stack end to end: Reactor Netty, the WebFlux controller and R2DBC against the configured database.
+ * HNB is unreachable, so prices are converted with the default rate.
+ */
+@SpringBootTest(classes = SpringRestAppApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"hnb.client.base-url=http://localhost:1", "hnb.rates.initial-delay=PT1H"})
+@ActiveProfiles("reactive")
+class ReactiveProductControllerIntegrationTest {
+
+    private static final int REQUESTS = 16;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @LocalServerPort
+    private int port;
+
+    private final String prefix = "N" + String.format("%06d", System.nanoTime() % 1_000_000L);
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM products WHERE code LIKE :prefix")
+                .bind("prefix", prefix + "%")
+                .then()
+                .block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void addProduct_CreatesOnceThenRejectsDuplicateCode() {
+        String body = product(prefix + "000");
+
+        webTestClient.post().uri("/api/product").contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.products[0].id").isNumber()
+                .jsonPath("$.products[0].version").isEqualTo(0);
+        webTestClient.post().uri("/api/product").contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors[0]").isEqualTo("Product with code " + prefix + "000 already exists.");
+    }
+
+    @Test
+    void addProduct_InvalidBodyIsBadRequest() {
+        webTestClient.post().uri("/api/product").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"code\":\"short\",\"name\":\"Lamp\",\"priceEur\":2.5,\"available\":true}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void addProduct_ConcurrentSameCodeInsertedExactlyOnce() {
+        String body = product(prefix + "001");
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        Map<HttpStatus, Long> statuses = Flux.range(0, REQUESTS)
+                .flatMap(request -> client.post().uri("/api/product").contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(HttpStatus.valueOf(response.statusCode().value()))))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(Map.of(HttpStatus.CREATED, 1L, HttpStatus.BAD_REQUEST, (long) REQUESTS - 1), statuses);
+        assertEquals(1, countCode(prefix + "001"));
+    }
+
+    @Test
+    void getProduct_ServesETagAndNotModified() {
+        long id = create(prefix + "002");
+
+        String etag = webTestClient.get().uri("/api/product/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.products[0].code").isEqualTo(prefix + "002")
+                .jsonPath("$.products[0].version").isEqualTo(0)
+                .returnResult().getResponseHeaders().getETag();
+        assertNotNull(etag);
+
+        webTestClient.get().uri("/api/product/{id}", id).header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", etag)
+                .expectBody().isEmpty();
+        webTestClient.get().uri("/api/product/{id}", id).header("If-None-Match", "\"other\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", etag);
+    }
+
+    @Test
+    void getProduct_UnknownIdIsNotFound() {
+        webTestClient.get().uri("/api/product/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.errors[0]").isEqualTo("No product found.");
+    }
+
+    @Test
+    void getAllProducts_FiltersAndCounts() {
+        create(prefix + "003");
+        create(prefix + "004");
+
+        webTestClient.get().uri(uri -> uri.path("/api/products")
+                        .queryParam("filter", "{filter}")
+                        .queryParam("per_page", 1)
+                        .queryParam("withTotal", true)
+                        .build("{\"code\":{\"prefix\":\"" + prefix + "\"}}"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("totalItems", "2")
+                .expectBody()
+                .jsonPath("$.products.length()").isEqualTo(1)
+                .jsonPath("$.products[0].version").isEqualTo(0)
+                .jsonPath("$.hasNext").isEqualTo(true)
+                .jsonPath("$.nextCursor").isNotEmpty();
+    }
+
+    @Test
+    void getAllProducts_NoMatchIsNotFound() {
+        webTestClient.get().uri(uri -> uri.path("/api/products").queryParam("filter", "{filter}")
+                        .build("{\"code\":\"" + prefix + "999\"}"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.errors[0]").isEqualTo("No products found.");
+    }
+
+    @Test
+    void getAllProducts_InvalidInputIsBadRequest() {
+        webTestClient.get().uri("/api/products?currency=XYZ")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri(uri -> uri.path("/api/products").queryParam("filter", "{filter}").build("{\"color\":\"red\"}"))
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/products?after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors[0]").isEqualTo("Invalid cursor.");
+    }
+
+    @Test
+    void getAllProducts_AcceptsUnencodedJsonFilter() throws IOException {
+        create(prefix + "005");
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /api/products?filter={\"code\":\"" + prefix + "005\"} HTTP/1.1\r\n"
+                    + "Host: localhost\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+            assertEquals("HTTP/1.1 200 OK", in.readLine());
+            assertTrue(in.lines().anyMatch(line -> line.contains(prefix + "005")));
+        }
+    }
+
+    private long create(final String code) {
+        JsonNode created = webTestClient.post().uri("/api/product").contentType(MediaType.APPLICATION_JSON).bodyValue(product(code))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        return created.at("/products/0/id").asLong();
+    }
+
+    private long countCode(final String code) {
+        return databaseClient.sql("SELECT count(*) FROM products WHERE code = :code")
+                .bind("code", code)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static String product(final String code) {
+        return "{\"code\":\"" + code + "\",\"name\":\"Reactive lamp\",\"priceEur\":2.5,\"available\":true}";
+    }
+}
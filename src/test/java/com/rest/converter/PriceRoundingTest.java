@@ -0,0 +1,54 @@
+package com.rest.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceRoundingTest {
+
+    private static long exactCents(double value) {
+        return new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static void assertSameAsExact(double value) {
+        assertEquals(exactCents(value), PriceRounding.toCents(value), () -> "Rounding differs for " + value);
+    }
+
+    @Test
+    void toCents_MatchesBigDecimal_ForHalfCentTies() {
+        for (long thousandths = 0; thousandths < 2_000_000; thousandths += 5) {
+            assertSameAsExact(thousandths / 1000.0);
+            assertSameAsExact(-thousandths / 1000.0);
+        }
+        assertSameAsExact(0.125);
+        assertSameAsExact(0.375);
+        assertSameAsExact(1.005);
+        assertSameAsExact(2.675);
+    }
+
+    @Test
+    void toCents_MatchesBigDecimal_ForConvertedPrices() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            double priceEur = Math.round(random.nextDouble() * 100_000) / 100.0;
+            double rate = 0.5 + random.nextDouble() * 200;
+            assertSameAsExact(priceEur * rate);
+            assertSameAsExact(random.nextDouble() * Math.pow(10, random.nextInt(16)));
+        }
+    }
+
+    @Test
+    void toCents_HandlesEdgeValues() {
+        assertSameAsExact(0.0);
+        assertSameAsExact(-0.001);
+        assertSameAsExact(0.004999999999999999);
+        assertSameAsExact(0x1p45 + 0.125);
+        assertSameAsExact(1e16);
+        assertThrows(ArithmeticException.class, () -> PriceRounding.toCents(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> PriceRounding.toCents(1e17));
+    }
+}
@@ -0,0 +1,43 @@
+package com.rest.converter;
+
+import com.rest.dto.ExchangeRates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableTest {
+
+    private final RateTable rateTable = RateTable.of(List.of(
+            new ExchangeRates("77", "2025-04-22", "SAD", "USA", "1,0807", "1,0839", "840", "1,0823", "USD"),
+            new ExchangeRates("77", "2025-04-22", "Švicarska", "CHE", "0,9391", "0,9419", "756", "0,9405", "CHF"),
+            new ExchangeRates("77", "2025-04-22", "V. Britanija", "GBR", "0,8511", "0,8537", "826", "0,8524", "GBP")));
+
+    @Test
+    void findRate_ReturnsParsedRates() {
+        assertEquals(1.0823, rateTable.findRate("USD"));
+        assertEquals(0.9405, rateTable.findRate("chf"));
+        assertEquals(1.0, rateTable.findRate("EUR"));
+        assertNull(rateTable.findRate("JPY"));
+        assertEquals("77@2025-04-22", rateTable.getVersion());
+    }
+
+    @Test
+    void select_KeepsRequestOrder() {
+        RateTable.Selection selection = rateTable.select(List.of("GBP", "USD"));
+
+        assertEquals(2, selection.size());
+        assertEquals("GBP", selection.code(0));
+        assertEquals(852_400L, selection.rateMicros(0));
+        assertEquals("USD", selection.code(1));
+        assertEquals(1_082_300L, selection.rateMicros(1));
+        assertEquals(RateTable.toMicros(1.0823), selection.rateMicros(1), "parsed with the scale of Money.RATE_SCALE");
+    }
+
+    @Test
+    void select_RejectsUnknownCurrency() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> rateTable.select(List.of("GBP", "XYZ")));
+        assertEquals("Unknown currency: XYZ.", e.getMessage());
+    }
+}
@@ -0,0 +1,66 @@
+package com.rest.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @Test
+    void of_RoundsHalfEvenToCents() {
+        assertEquals(199, Money.of(1.99).getCents());
+        assertEquals(12, Money.of(0.125).getCents());
+        assertEquals(100, Money.of(1.005).getCents());
+        assertEquals(102, Money.of(new BigDecimal("1.015")).getCents());
+        assertEquals(-250, Money.of(-2.5).getCents());
+    }
+
+    @Test
+    void convert_UsesExactIntegerArithmetic() {
+        // 0.07 * 1.5 = 0.105 exactly, double arithmetic gives 0.10500000000000001 and rounds to 0.11
+        assertEquals(10, Money.ofCents(7).convert(1_500_000).getCents());
+        // 0.01 * 1.5 = 0.015 exactly, double arithmetic gives 0.01499999... and rounds to 0.01
+        assertEquals(2, Money.ofCents(1).convert(1_500_000).getCents());
+        assertEquals(68, Money.ofCents(45).convert(1_500_000).getCents());
+        assertEquals(52, Money.ofCents(35).convert(1_500_000).getCents());
+        assertEquals(215, Money.ofCents(199).convert(1_082_300).getCents());
+        assertEquals(-215, Money.ofCents(-199).convert(1_082_300).getCents());
+    }
+
+    @Test
+    void convert_FallsBackToBigDecimal_OnOverflow() {
+        Money large = Money.ofCents(Long.MAX_VALUE / 1000);
+        assertEquals(large.toBigDecimal().multiply(new BigDecimal("0.5")).setScale(2, RoundingMode.HALF_EVEN),
+                large.convert(500_000).toBigDecimal());
+    }
+
+    @Test
+    void json_KeepsNumberShape() throws Exception {
+        assertEquals("1.99", jsonMapper.writeValueAsString(Money.ofCents(199)));
+        assertEquals("2.0", jsonMapper.writeValueAsString(Money.ofCents(200)));
+        assertEquals("1.5", jsonMapper.writeValueAsString(Money.ofCents(150)));
+        assertEquals("0.05", jsonMapper.writeValueAsString(Money.ofCents(5)));
+        assertEquals("-3.07", jsonMapper.writeValueAsString(Money.ofCents(-307)));
+
+        assertEquals(Money.ofCents(1999), jsonMapper.readValue("19.99", Money.class));
+        assertEquals(Money.ofCents(2000), jsonMapper.readValue("20", Money.class));
+        assertEquals(Money.ofCents(1234), jsonMapper.readValue("\"12.345\"", Money.class));
+    }
+
+    @Test
+    void productDto_ValidatesPositivePrice() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        assertTrue(validator.validate(new ProductDto(1, "1234567890", "Milk", 1.99, null, true)).isEmpty());
+        assertEquals(1, validator.validate(new ProductDto(1, "1234567890", "Milk", -1.99, null, true)).size());
+        assertEquals(1, validator.validate(new ProductDto(1, "1234567890", "Milk", 0.0, null, true)).size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.rest.filter;
+
+import com.rest.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCursorTest {
+
+    private final ProductDto product = new ProductDto(42L, "C000000042", "Desk | oak", 199.9, null, false);
+
+    @Test
+    void parseSort_AddsIdTieBreakerInSameDirection() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "name", "id"), ProductCursor.parseSort("name"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "priceEur", "id"), ProductCursor.parseSort("priceEur,desc"));
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), ProductCursor.parseSort("id,asc"));
+        assertEquals(Sort.by(Sort.Direction.ASC, "name", "id"), ProductCursor.parseSort(null));
+    }
+
+    @Test
+    void parseSort_RejectsUnknownPropertyOrDirection() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.parseSort("secret"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.parseSort("name,sideways"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.parseSort("name,asc,id"));
+    }
+
+    @Test
+    void encodeDecode_RoundTripsEverySortKey() {
+        for (FilterField field : FilterField.values()) {
+            Sort sort = ProductCursor.parseSort(field.getProperty() + ",desc");
+            String encoded = ProductCursor.after(sort, product).encode();
+
+            ProductCursor decoded = ProductCursor.decode(encoded);
+
+            assertEquals(sort, decoded.getSort());
+            assertEquals(encoded, decoded.encode());
+            assertEquals(field.read(product), decoded.getLastValue());
+            assertEquals(42L, decoded.getLastId());
+        }
+    }
+
+    @Test
+    void encode_IsUrlSafe() {
+        String encoded = ProductCursor.after(ProductCursor.parseSort("name"), product).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void decode_RejectsTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("secret|ASC|1|x")));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("priceEur|ASC|1|cheap")));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("name|UP|1|x")));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("name|ASC|one|x")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
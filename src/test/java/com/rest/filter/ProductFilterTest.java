@@ -0,0 +1,75 @@
+package com.rest.filter;
+
+import com.rest.dto.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFilterTest {
+
+    @Test
+    void parse_EmptyFilter() {
+        assertTrue(ProductFilter.parse(null).isEmpty());
+        assertTrue(ProductFilter.parse("{}").isEmpty());
+        assertTrue(ProductFilter.parse("{}").shape().isEmpty());
+    }
+
+    @Test
+    void parse_BareValuesKeepFormerSemantics() {
+        List<ProductFilter.Condition> conditions = ProductFilter.parse("{\"name\":\"milk\",\"isAvailable\":\"true\",\"priceEur\":1.5}").getConditions();
+
+        assertEquals(new ProductFilter.Condition(FilterField.NAME, FilterOperator.CONTAINS, List.of("milk")), conditions.get(0));
+        assertEquals(new ProductFilter.Condition(FilterField.PRICE_EUR, FilterOperator.EQ, List.of(Money.ofCents(150))), conditions.get(1));
+        assertEquals(new ProductFilter.Condition(FilterField.IS_AVAILABLE, FilterOperator.EQ, List.of(true)), conditions.get(2));
+    }
+
+    @Test
+    void parse_TypedOperators() {
+        List<ProductFilter.Condition> conditions = ProductFilter.parse(
+                "{\"name\":{\"prefix\":\"Mi\"},\"priceEur\":{\"gte\":1,\"lt\":\"5.50\"},\"code\":{\"in\":[\"A1\",\"B2\"]},\"id\":{\"gt\":10}}").getConditions();
+
+        assertEquals(List.of(
+                new ProductFilter.Condition(FilterField.ID, FilterOperator.GT, List.of(10L)),
+                new ProductFilter.Condition(FilterField.CODE, FilterOperator.IN, List.of("A1", "B2")),
+                new ProductFilter.Condition(FilterField.NAME, FilterOperator.PREFIX, List.of("Mi")),
+                new ProductFilter.Condition(FilterField.PRICE_EUR, FilterOperator.GTE, List.of(Money.ofCents(100))),
+                new ProductFilter.Condition(FilterField.PRICE_EUR, FilterOperator.LT, List.of(Money.ofCents(550)))), conditions);
+    }
+
+    @Test
+    void parse_RejectsInvalidFilters() {
+        assertEquals("Unknown filter field: secret.", assertThrows(IllegalArgumentException.class,
+                () -> ProductFilter.parse("{\"secret\":\"x\"}")).getMessage());
+        assertEquals("Unknown filter operator: near.", assertThrows(IllegalArgumentException.class,
+                () -> ProductFilter.parse("{\"name\":{\"near\":\"x\"}}")).getMessage());
+        assertEquals("Operator prefix is not supported for priceEur.", assertThrows(IllegalArgumentException.class,
+                () -> ProductFilter.parse("{\"priceEur\":{\"prefix\":\"1\"}}")).getMessage());
+        assertEquals("Invalid value for isAvailable: \"yes\".", assertThrows(IllegalArgumentException.class,
+                () -> ProductFilter.parse("{\"isAvailable\":\"yes\"}")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ProductFilter.parse("{\"priceEur\":{\"gt\":\"cheap\"}}"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFilter.parse("{\"code\":{\"in\":[]}}"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFilter.parse("{\"name\":{}}"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFilter.parse("[\"name\"]"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFilter.parse("{name"));
+    }
+
+    @Test
+    void shape_IgnoresOperands() {
+        ProductFilter first = ProductFilter.parse("{\"name\":{\"prefix\":\"Mi\"},\"code\":{\"in\":[\"A1\"]}}");
+        ProductFilter second = ProductFilter.parse("{\"name\":{\"prefix\":\"Bre\"},\"code\":{\"in\":[\"B2\",\"C3\"]}}");
+
+        assertEquals(first.shape(), second.shape());
+        assertNotEquals(first.shape(), ProductFilter.parse("{\"name\":\"Mi\"}").shape());
+    }
+
+    @Test
+    void shape_IgnoresJsonKeyOrder() {
+        ProductFilter first = ProductFilter.parse("{\"priceEur\":{\"lt\":5,\"gte\":1},\"name\":{\"prefix\":\"Mi\"}}");
+        ProductFilter second = ProductFilter.parse("{\"name\":{\"prefix\":\"Mi\"},\"priceEur\":{\"gte\":1,\"lt\":5}}");
+
+        assertEquals(first.shape(), second.shape());
+        assertEquals(first.getConditions(), second.getConditions());
+    }
+}
@@ -0,0 +1,85 @@
+package com.rest.repository;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.service.ProductService;
+import com.rest.web.response.ProductListing;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level and query cache behaviour against the configured database
+ */
+@SpringBootTest(classes = SpringRestAppApplication.class)
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final String code = "T" + String.format("%09d", System.nanoTime() % 1_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.findAll().stream()
+                .filter(product -> code.equals(product.getCode()))
+                .forEach(productRepository::delete);
+    }
+
+    @Test
+    void listing_IsCachedAndInvalidatedByAddProduct() {
+        String filter = "{\"code\":{\"eq\":\"" + code + "\"}}";
+
+        assertEquals(0, list(filter).totalItems());
+        assertEquals(0, list(filter).totalItems());
+        assertTrue(statistics.getQueryCacheHitCount() >= 2, "Repeated listing should be served from the query cache");
+
+        productService.addProduct(new ProductDto(0, code, "Cached", 2.5, null, true));
+
+        ProductListing afterInsert = list(filter);
+        assertEquals(1, afterInsert.totalItems());
+        assertEquals(code, afterInsert.response().getProducts().get(0).getCode());
+        assertEquals(0, statistics.getEntityLoadCount(), "Listings should be projected without loading entities");
+    }
+
+    @Test
+    void getProduct_IsServedFromSecondLevelCache() {
+        productService.addProduct(new ProductDto(0, code, "Cached", 2.5, null, true));
+        Long id = list("{\"code\":\"" + code + "\"}").response().getProducts().get(0).getId();
+        entityManagerFactory.getCache().evict(Product.class);
+        statistics.clear();
+
+        productService.getProduct(id);
+        productService.getProduct(id);
+        productService.getProduct(id);
+
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount());
+    }
+
+    private ProductListing list(String filter) {
+        return productService.getAllProducts(0, 10, "name", filter, null, null, ProductService.TotalCount.EXACT);
+    }
+}
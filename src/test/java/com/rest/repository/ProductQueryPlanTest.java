@@ -0,0 +1,93 @@
+package com.rest.repository;
+
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductQueryPlanTest {
+
+    private final ProductRepositoryImpl repository = new ProductRepositoryImpl(2);
+
+    @Test
+    void compile_RendersParameterizedJpql() {
+        ProductFilter filter = ProductFilter.parse("{\"name\":{\"prefix\":\"50%_\"},\"priceEur\":{\"gte\":1,\"lt\":5},\"code\":{\"in\":[\"A1\",\"B2\"]}}");
+
+        ProductQueryPlan plan = repository.planFor(filter, ProductCursor.parseSort("name"), false);
+
+        assertEquals("select p from Product p where p.code in :p0 and p.name like :p1 escape '\\' and p.priceEur >= :p2 and p.priceEur < :p3"
+                + " order by p.name asc, p.id asc", plan.getSelect());
+        assertEquals("select count(p) from Product p where p.code in :p0 and p.name like :p1 escape '\\' and p.priceEur >= :p2 and p.priceEur < :p3", plan.getCount());
+        assertEquals(Map.of("p0", List.of("A1", "B2"), "p1", "50\\%\\_%", "p2", Money.ofCents(100), "p3", Money.ofCents(500)),
+                plan.filterParameters(filter));
+    }
+
+    @Test
+    void planFor_SharesPlanAcrossJsonKeyOrders() {
+        Sort sort = ProductCursor.parseSort("name");
+        ProductFilter first = ProductFilter.parse("{\"priceEur\":{\"gte\":1,\"lt\":5},\"name\":{\"prefix\":\"Mi\"}}");
+        ProductFilter second = ProductFilter.parse("{\"name\":{\"prefix\":\"Br\"},\"priceEur\":{\"lt\":9,\"gte\":2}}");
+
+        ProductQueryPlan plan = repository.planFor(first, sort, false);
+
+        assertSame(plan, repository.planFor(second, sort, false));
+        assertEquals(Map.of("p0", "Br%", "p1", Money.ofCents(200), "p2", Money.ofCents(900)), plan.filterParameters(second));
+    }
+
+    @Test
+    void compile_SeeksAfterCursor() {
+        Sort sort = ProductCursor.parseSort("priceEur,desc");
+        ProductCursor after = ProductCursor.after(sort, new ProductDto(9L, "C000000009", "Lamp", 12.5, null, true));
+        ProductFilter filter = ProductFilter.parse("{\"isAvailable\":true}");
+
+        ProductQueryPlan plan = repository.planFor(filter, sort, true);
+
+        assertEquals("select p from Product p where p.isAvailable = :p0 and p.priceEur <= :afterKey and (p.priceEur < :afterKey or p.id < :afterId)"
+                + " order by p.priceEur desc, p.id desc", plan.getSelect());
+        assertEquals("select new com.rest.dto.ProductDto(p.id, p.code, p.name, p.priceEur, p.isAvailable, p.version) from Product p"
+                + " where p.isAvailable = :p0 and p.priceEur <= :afterKey and (p.priceEur < :afterKey or p.id < :afterId)"
+                + " order by p.priceEur desc, p.id desc", plan.getProjection());
+        assertEquals(Map.of("p0", true, "afterKey", Money.ofCents(1250), "afterId", 9L), plan.selectParameters(filter, after));
+    }
+
+    @Test
+    void compile_SeeksOnIdOnly() {
+        Sort sort = ProductCursor.parseSort("id");
+        ProductCursor after = ProductCursor.after(sort, new ProductDto(9L, "C000000009", "Lamp", 12.5, null, true));
+
+        ProductQueryPlan plan = repository.planFor(ProductFilter.NONE, sort, true);
+
+        assertEquals("select p from Product p where p.id > :afterId order by p.id asc", plan.getSelect());
+        assertEquals(Map.of("afterId", 9L), plan.selectParameters(ProductFilter.NONE, after));
+    }
+
+    @Test
+    void compile_RendersNativeSqlWithSameParameters() {
+        Sort sort = ProductCursor.parseSort("priceEur,desc");
+        ProductFilter filter = ProductFilter.parse("{\"name\":{\"contains\":\"milk\"},\"code\":{\"in\":[\"A1\",\"B2\"]},\"isAvailable\":true}");
+
+        ProductQueryPlan plan = repository.planFor(filter, sort, true);
+
+        assertEquals("select id, code, name, price_eur, is_available, version from products where code in (:p0) and name like :p1 escape '\\'"
+                + " and is_available = :p2 and price_eur <= :afterKey and (price_eur < :afterKey or id < :afterId)"
+                + " order by price_eur desc, id desc", plan.getSqlSelect());
+        assertEquals("select count(*) from products where code in (:p0) and name like :p1 escape '\\' and is_available = :p2", plan.getSqlCount());
+    }
+
+    @Test
+    void planFor_ReusesPlanForSameShape() {
+        Sort sort = ProductCursor.parseSort("name");
+        ProductQueryPlan first = repository.planFor(ProductFilter.parse("{\"name\":\"milk\"}"), sort, false);
+
+        assertSame(first, repository.planFor(ProductFilter.parse("{\"name\":\"bread\"}"), sort, false));
+        assertNotSame(first, repository.planFor(ProductFilter.parse("{\"name\":\"bread\"}"), ProductCursor.parseSort("name,desc"), false));
+        assertNotSame(first, repository.planFor(ProductFilter.parse("{\"code\":\"bread\"}"), sort, false));
+    }
+}
@@ -0,0 +1,234 @@
+package com.rest.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing of transactions between a primary and replicas stood in by mocks, wired like
+ * {@link ReplicaDataSourceConfiguration} does it
+ */
+class ReplicaDataSourceTest {
+
+    private final DataSource primary = primary();
+
+    private final DataSource replica1 = standby(true, false, 1.0);
+
+    private final DataSource replica2 = standby(true, false, 30.0);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ReplicaDataSource replicaDataSource;
+
+    private LazyConnectionDataSourceProxy dataSource;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        replicaDataSource = routing(replicas);
+
+        dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(replicaDataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void checkReplicas_EnablesReplicasWithinMaxLag() {
+        assertFalse(replicaDataSource.hasUsableReplica(), "replicas are unused before their first check");
+
+        replicaDataSource.checkReplicas();
+
+        assertTrue(replicaDataSource.hasUsableReplica());
+        assertEquals(1000, registry.get("db.replica.lag").tag("replica", "replica-1").timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(30000, registry.get("db.replica.lag").tag("replica", "replica-2").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void checkReplicas_CaughtUpStandby_HasNoLag() {
+        replicaDataSource = routing(Map.of("replica-1", standby(true, true, 60.0)));
+
+        replicaDataSource.checkReplicas();
+
+        assertTrue(replicaDataSource.hasUsableReplica());
+        assertEquals(0, registry.get("db.replica.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void checkReplicas_StalledWalReceiver_ExcludesStandby() {
+        replicaDataSource = routing(Map.of("replica-1", standby(false, true, 0.0)));
+
+        replicaDataSource.checkReplicas();
+
+        assertFalse(replicaDataSource.hasUsableReplica(), "a standby that receives nothing has replayed all it has");
+        assertTrue(Double.isNaN(registry.get("db.replica.lag").timeGauge().value(TimeUnit.MILLISECONDS)));
+    }
+
+    @Test
+    void replica_IsExcludedOnceLagPlusTimeSinceCheckExceedsMaxLag() throws InterruptedException {
+        replicaDataSource = routing(Map.of("replica-1", standby(true, false, 4.9)));
+
+        replicaDataSource.checkReplicas();
+        assertTrue(replicaDataSource.hasUsableReplica());
+
+        Thread.sleep(200);
+        assertFalse(replicaDataSource.hasUsableReplica(), "4.9 s behind at the check, more than 5 s behind now");
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() throws SQLException {
+        replicaDataSource.checkReplicas();
+        clearInvocations(primary, replica1, replica2);
+
+        runQuery(true);
+        runQuery(true);
+
+        verify(replica1, times(2)).getConnection();
+        verifyNoInteractions(replica2, primary);
+    }
+
+    @Test
+    void readOnlyTransaction_WithoutUsableReplica_UsesPrimary() throws SQLException {
+        runQuery(true);
+
+        verify(primary).getConnection();
+        verifyNoInteractions(replica1, replica2);
+        assertEquals(1, registry.get("db.replica.fallbacks").functionCounter().count());
+    }
+
+    @Test
+    void readOnlyTransaction_AfterWrite_UsesPrimaryForMaxLag() throws SQLException {
+        replicaDataSource.checkReplicas();
+        clearInvocations(primary, replica1, replica2);
+
+        runQuery(false);
+        runQuery(true);
+
+        verify(primary, times(2)).getConnection();
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaFails_FallsBackToPrimary() throws SQLException {
+        replicaDataSource.checkReplicas();
+        clearInvocations(primary, replica1, replica2);
+        doThrow(new SQLTransientConnectionException("timeout")).when(replica1).getConnection();
+
+        runQuery(true);
+        runQuery(true);
+
+        verify(replica1).getConnection();
+        verify(primary, times(2)).getConnection();
+        assertFalse(replicaDataSource.hasUsableReplica());
+    }
+
+    @Test
+    void readOnlyTransaction_WithoutStatements_FetchesNoConnection() {
+        replicaDataSource.checkReplicas();
+        clearInvocations(primary, replica1, replica2);
+
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> { });
+
+        verifyNoInteractions(primary, replica1, replica2);
+    }
+
+    /**
+     * Runs one statement in a transaction, which makes the proxy fetch the physical connection
+     */
+    private void runQuery(final boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * @return Routing data source over the given replicas with 5 s tolerated lag, the only one bound to {@link #registry}
+     */
+    private ReplicaDataSource routing(final Map<String, DataSource> replicas) {
+        registry.clear();
+        ReplicaDataSource routing = new ReplicaDataSource(primary, replicas, Duration.ofSeconds(5));
+        routing.bindTo(registry);
+        return routing;
+    }
+
+    /**
+     * @return Data source whose connections answer {@link ReplicaDataSource#PRIMARY_LSN_SQL}
+     */
+    private static DataSource primary() {
+        try {
+            DataSource dataSource = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            Statement statement = mock(Statement.class);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.createStatement()).thenReturn(statement);
+            when(statement.executeQuery(ReplicaDataSource.PRIMARY_LSN_SQL)).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getString(1)).thenReturn("0/3000060");
+            return dataSource;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param streaming Whether the WAL receiver is streaming
+     * @param caughtUp Whether the primary WAL position is replayed
+     * @param replaySeconds Age of the last replayed commit
+     * @return Data source whose connections answer {@link ReplicaDataSource#LAG_SQL} like a standby
+     */
+    private static DataSource standby(final boolean streaming, final boolean caughtUp, final double replaySeconds) {
+        try {
+            DataSource dataSource = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(ReplicaDataSource.LAG_SQL)).thenReturn(statement);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getBoolean(1)).thenReturn(true);
+            when(resultSet.getBoolean(2)).thenReturn(streaming);
+            when(resultSet.getBoolean(3)).thenReturn(caughtUp);
+            when(resultSet.getDouble(4)).thenReturn(replaySeconds);
+            return dataSource;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rest.repository;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.dto.ProductDto;
+import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
+import com.rest.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read replica routing through the real JPA transaction manager, with the configured database standing in for the
+ * replica: it is not in recovery, so it reports no lag, and reads are told apart by the pool they borrow from
+ */
+@SpringBootTest(classes = SpringRestAppApplication.class, properties = {
+        "products.datasource.replica.urls=${spring.datasource.url}",
+        "products.datasource.replica.max-lag=2s",
+        "products.datasource.replica.check-interval=1h"})
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String code = "Q" + String.format("%09d", System.nanoTime() % 1_000_000_000L);
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        productService.addProduct(new ProductDto(0, code, "Replica lamp", 2.5, null, true));
+        id = productRepository.findDtoSlice(filter(), null, PageRequest.of(0, 1)).getContent().get(0).getId();
+        Thread.sleep(2100);
+        replicaDataSource.checkReplicas();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteById(id);
+    }
+
+    @Test
+    void transactionManager_ReportsCommitsToReplicaDataSource() {
+        JpaTransactionManager jpaTransactionManager = assertInstanceOf(JpaTransactionManager.class, transactionManager);
+        assertTrue(jpaTransactionManager.getTransactionExecutionListeners().contains(replicaDataSource));
+    }
+
+    @Test
+    void readOnlyRepositoryCalls_UseReplica() {
+        assertTrue(replicaDataSource.hasUsableReplica());
+        double fallbacks = fallbacks();
+
+        assertReadsFromReplica(() -> assertTrue(productRepository.findById(id).isPresent()));
+        assertReadsFromReplica(() -> assertEquals(1, productRepository.findDtoSlice(filter(), null,
+                PageRequest.of(0, 10, ProductCursor.parseSort("name"))).getNumberOfElements()));
+        assertReadsFromReplica(() -> assertEquals(1, productRepository.countMatching(filter())));
+
+        assertEquals(fallbacks, fallbacks());
+    }
+
+    @Test
+    void readAfterWrite_UsesPrimary() {
+        Product product = productRepository.findById(id).orElseThrow();
+        product.setName("Replica lamp 2");
+        productRepository.save(product);
+        entityManagerFactory.getCache().evict(Product.class);
+        double replicaReads = replicaAcquisitions();
+        double fallbacks = fallbacks();
+
+        assertEquals("Replica lamp 2", productRepository.findById(id).orElseThrow().getName());
+
+        assertEquals(replicaReads, replicaAcquisitions());
+        assertEquals(fallbacks + 1, fallbacks());
+    }
+
+    private void assertReadsFromReplica(final Runnable read) {
+        double before = replicaAcquisitions();
+        read.run();
+        assertEquals(before + 1, replicaAcquisitions(), "one connection borrowed from the replica pool");
+    }
+
+    /**
+     * @return Connections borrowed from the replica pool so far
+     */
+    private double replicaAcquisitions() {
+        return meterRegistry.find("hikaricp.connections.acquire").timers().stream()
+                .filter(timer -> timer.getId().getTag("pool").endsWith("-replica-1"))
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("db.replica.fallbacks").functionCounter().count();
+    }
+
+    private ProductFilter filter() {
+        return ProductFilter.parse("{\"code\":\"" + code + "\"}");
+    }
+}
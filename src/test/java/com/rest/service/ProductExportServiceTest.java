@@ -0,0 +1,92 @@
+package com.rest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.Money;
+import com.rest.entity.Product;
+import com.rest.filter.ProductFilter;
+import com.rest.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductExportServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final UsdConvertService usdConvertService = mock(UsdConvertService.class);
+
+    private final ProductExportService productExportService = new ProductExportService();
+
+    private final AtomicBoolean streamClosed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productExportService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productExportService, "productDtoConverter", new ProductDtoConverter());
+        ReflectionTestUtils.setField(productExportService, "usdConvertService", usdConvertService);
+        ReflectionTestUtils.setField(productExportService, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(productExportService, "fetchSize", 1);
+        when(usdConvertService.findUSDRate()).thenReturn(1.1);
+        when(productRepository.streamAll(any(), anyInt())).thenReturn(Stream.of(
+                new Product(1L, "1234567891", "Milk", 2.0, true),
+                new Product(2L, "1234567892", "Eggs, \"free range\"", 12345678.9, false)).onClose(() -> streamClosed.set(true)));
+    }
+
+    private String export(final ProductExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, productExportService.export(ProductFilter.NONE, format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void export_Ndjson_WritesOneProductPerLine() throws IOException {
+        String body = export(ProductExportService.Format.NDJSON);
+
+        assertEquals("{\"id\":1,\"code\":\"1234567891\",\"name\":\"Milk\",\"priceEur\":2.0,\"priceUsd\":2.2,\"available\":true}\n"
+                + "{\"id\":2,\"code\":\"1234567892\",\"name\":\"Eggs, \\\"free range\\\"\",\"priceEur\":12345678.9,\"priceUsd\":13580246.79,\"available\":false}\n", body);
+        assertTrue(streamClosed.get());
+        verify(productRepository).streamAll(ProductFilter.NONE, 1);
+        verify(usdConvertService, times(1)).findUSDRate();
+    }
+
+    @Test
+    void export_Csv_QuotesSpecialCharacters() throws IOException {
+        String body = export(ProductExportService.Format.CSV);
+
+        assertEquals("id,code,name,priceEur,priceUsd,available\r\n"
+                + "1,1234567891,Milk,2.0,2.2,true\r\n"
+                + "2,1234567892,\"Eggs, \"\"free range\"\"\",12345678.9,13580246.79,false\r\n", body);
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void csvAmount_MatchesNdjsonAndNeverUsesExponentNotation() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        for (Money amount : List.of(Money.of(12345678.9), Money.of(1e8), Money.ofCents(5), Money.ofCents(199))) {
+            assertEquals(objectMapper.writeValueAsString(amount), ProductExportService.csvAmount(amount));
+        }
+        assertEquals("100000000.0", ProductExportService.csvAmount(Money.of(1e8)));
+        assertEquals("0.05", ProductExportService.csvAmount(Money.ofCents(5)));
+        assertEquals("", ProductExportService.csvAmount(null));
+    }
+
+    @Test
+    void format_RejectsUnknown() {
+        assertEquals(ProductExportService.Format.CSV, ProductExportService.Format.of("CSV"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ProductExportService.Format.of("xml"));
+        assertEquals("Unknown export format: xml. Use ndjson or csv.", e.getMessage());
+    }
+}
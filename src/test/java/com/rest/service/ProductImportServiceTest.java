@@ -0,0 +1,161 @@
+package com.rest.service;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.entity.Product;
+import com.rest.repository.ProductRepository;
+import com.rest.web.response.ProductImportResponse;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final ProductImportService productImportService = new ProductImportService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productImportService, "productDtoConverter", new ProductDtoConverter());
+        ReflectionTestUtils.setField(productImportService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(productImportService, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 1000);
+        ReflectionTestUtils.setField(productImportService, "maxReportedErrors", 1000);
+        when(productRepository.findExistingCodes(any(String[].class))).thenReturn(Set.of());
+    }
+
+    private static ByteArrayInputStream input(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String product(final String code) {
+        return "{\"code\":\"" + code + "\",\"name\":\"Product " + code + "\",\"priceEur\":1.99,\"available\":true}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Product>> insertedBatches(final int times) {
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productRepository, times(times)).insertAll(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void importProducts_JsonArray_ReportsRowErrors() {
+        when(productRepository.findExistingCodes(any(String[].class))).thenReturn(Set.of("EXISTING01"));
+        String body = "[" + String.join(",", product("AAAAAAAAA1"), product("short"), product("AAAAAAAAA1"),
+                product("EXISTING01"), "{\"code\":\"BBBBBBBBB2\",\"name\":\"x\",\"priceEur\":\"abc\"}", product("CCCCCCCCC3")) + "]";
+
+        ProductImportResponse report = productImportService.importProducts(input(body));
+
+        assertTrue(report.getErrors().isEmpty());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L), report.getRowErrors().stream().map(ProductImportResponse.RowError::row).sorted().toList());
+        assertEquals(List.of("Product code must be 10 characters long"), report.getRowErrors().stream()
+                .filter(e -> e.row() == 2).findFirst().orElseThrow().errors());
+        assertEquals("BBBBBBBBB2", report.getRowErrors().stream().filter(e -> e.row() == 5).findFirst().orElseThrow().code());
+
+        List<Product> inserted = insertedBatches(1).get(0);
+        assertEquals(List.of("AAAAAAAAA1", "CCCCCCCCC3"), inserted.stream().map(Product::getCode).toList());
+        assertTrue(inserted.stream().allMatch(p -> p.getId() == null));
+    }
+
+    @Test
+    void importProducts_Ndjson_ChecksUniquenessOncePerChunk() {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        String body = product("AAAAAAAAA1") + "\n" + product("AAAAAAAAA2") + "\n" + product("AAAAAAAAA3") + "\n"
+                + product("AAAAAAAAA4") + "\n" + product("AAAAAAAAA5") + "\n";
+
+        ProductImportResponse report = productImportService.importProducts(input(body));
+
+        assertEquals(5, report.getImported());
+        assertEquals(0, report.getRejected());
+        verify(productRepository, times(3)).findExistingCodes(any(String[].class));
+        assertEquals(List.of(2, 2, 1), insertedBatches(3).stream().map(List::size).toList());
+        verify(productRepository, times(3)).analyze();
+    }
+
+    @Test
+    void importProducts_MalformedInput_KeepsPrecedingRows() {
+        ProductImportResponse report = productImportService.importProducts(input(product("AAAAAAAAA1") + "\n{\"code\":"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getErrors().size());
+        assertTrue(report.getErrors().get(0).startsWith("Malformed input after row 1"));
+    }
+
+    @Test
+    void importProducts_ConcurrentInsert_RetriesWithoutConflictingRow() {
+        when(productRepository.findExistingCodes(any(String[].class))).thenReturn(Set.of(), Set.of("AAAAAAAAA1"));
+        doThrow(new DataIntegrityViolationException("duplicate key")).doNothing().when(productRepository).insertAll(anyList());
+
+        ProductImportResponse report = productImportService.importProducts(input("[" + product("AAAAAAAAA1") + "," + product("AAAAAAAAA2") + "]"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of("Product with code AAAAAAAAA1 already exists."), report.getRowErrors().get(0).errors());
+        assertEquals(List.of("AAAAAAAAA2"), insertedBatches(2).get(1).stream().map(Product::getCode).toList());
+    }
+
+    @Test
+    void importProducts_RepeatedConcurrentInserts_RetriesUntilNoConflict() {
+        when(productRepository.findExistingCodes(any(String[].class))).thenReturn(Set.of(), Set.of("AAAAAAAAA1"), Set.of("AAAAAAAAA2"));
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doNothing().when(productRepository).insertAll(anyList());
+
+        ProductImportResponse report = productImportService.importProducts(
+                input("[" + product("AAAAAAAAA1") + "," + product("AAAAAAAAA2") + "," + product("AAAAAAAAA3") + "]"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of("AAAAAAAAA3"), insertedBatches(3).get(2).stream().map(Product::getCode).toList());
+    }
+
+    @Test
+    void importProducts_ConflictWithoutNewCodes_ReportsRowsInsteadOfFailing() {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        when(productRepository.findExistingCodes(any(String[].class))).thenReturn(Set.of());
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doNothing().when(productRepository).insertAll(anyList());
+
+        ProductImportResponse report = productImportService.importProducts(
+                input("[" + product("AAAAAAAAA1") + "," + product("AAAAAAAAA2") + "," + product("AAAAAAAAA3") + "]"));
+
+        assertTrue(report.getErrors().isEmpty());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of(1L, 2L), report.getRowErrors().stream().map(ProductImportResponse.RowError::row).toList());
+        assertEquals(List.of("Product could not be stored, conflicting concurrent write."), report.getRowErrors().get(0).errors());
+        assertEquals(List.of("AAAAAAAAA3"), insertedBatches(3).get(2).stream().map(Product::getCode).toList());
+    }
+
+    @Test
+    void importProducts_CapsReportedErrors() {
+        ReflectionTestUtils.setField(productImportService, "maxReportedErrors", 2);
+        String body = "[" + List.of("a", "b", "c", "d").stream().map(ProductImportServiceTest::product).collect(Collectors.joining(",")) + "]";
+
+        ProductImportResponse report = productImportService.importProducts(input(body));
+
+        assertEquals(4, report.getRejected());
+        assertEquals(2, report.getRowErrors().size());
+        verify(productRepository, never()).insertAll(anyList());
+        verify(productRepository, never()).findExistingCodes(any(String[].class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.rest.service;
+
+import com.rest.app.SpringRestAppApplication;
+import com.rest.dto.ProductDto;
+import com.rest.web.response.ProductLoadResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * COPY bulk load against the configured PostgreSQL database
+ */
+@SpringBootTest(classes = SpringRestAppApplication.class)
+class ProductLoadServiceIntegrationTest {
+
+    @Autowired
+    private ProductLoadService productLoadService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "L" + String.format("%05d", System.nanoTime() % 100_000L);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE code LIKE ?", prefix + "%");
+    }
+
+    @Test
+    void loadCsv_InsertsUpdatesAndRejects() {
+        ProductLoadResponse first = load(ProductExportService.Format.CSV, "code,name,priceEur,available\r\n"
+                + code(1) + ",Milk,1.99,true\r\n"
+                + code(2) + ",\"Bread, white\",2.50,false\r\n"
+                + code(3) + ",,1.00,true\r\n"
+                + code(4) + ",Free,0,true\r\n");
+
+        assertTrue(first.getErrors().isEmpty(), first.getErrors().toString());
+        assertEquals(ProductLoadResponse.Phase.DONE, first.getPhase());
+        assertEquals(4, first.getCopied());
+        assertEquals(2, first.getInserted());
+        assertEquals(2, first.getRejected());
+        assertEquals("Bread, white", name(code(2)));
+
+        ProductLoadResponse second = load(ProductExportService.Format.CSV, "id,code,name,priceEur,priceUsd,available\n"
+                + "1," + code(1) + ",Milk,1.99,1.99,true\n"
+                + "2," + code(2) + ",Bread,2.50,2.50,false\n"
+                + "3," + code(2) + ",Rye bread,2.80,2.80,true\n"
+                + "4," + code(5) + ",Eggs,3.10,3.10,true\n");
+
+        assertTrue(second.getErrors().isEmpty(), second.getErrors().toString());
+        assertEquals(1, second.getInserted());
+        assertEquals(1, second.getUpdated());
+        assertEquals(1, second.getUnchanged());
+        assertEquals(1, second.getDuplicates());
+        assertEquals("Rye bread", name(code(2)));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM products WHERE code LIKE ?", Long.class, prefix + "%"));
+    }
+
+    @Test
+    void loadNdjson_InsertsRows() {
+        ProductLoadResponse report = load(ProductExportService.Format.NDJSON,
+                "{\"code\":\"" + code(1) + "\",\"name\":\"Milk \\\"fresh\\\"\",\"priceEur\":1.99,\"available\":true}\n"
+                + "{\"code\":\"" + code(2) + "\",\"name\":\"Bread\",\"priceEur\":\"2.5\"}\n");
+
+        assertTrue(report.getErrors().isEmpty(), report.getErrors().toString());
+        assertEquals(2, report.getInserted());
+        assertEquals("Milk \"fresh\"", name(code(1)));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT is_available FROM products WHERE code = ?", Boolean.class, code(2)));
+    }
+
+    @Test
+    void load_EvictsCachedProducts() {
+        load(ProductExportService.Format.CSV, "code,name,priceEur\n" + code(1) + ",Milk,1.99\n");
+        long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE code = ?", Long.class, code(1));
+        assertEquals("Milk", productService.getProduct(id).getProducts().get(0).getName());
+
+        load(ProductExportService.Format.CSV, "code,name,priceEur\n" + code(1) + ",Oat milk,1.99\n");
+
+        ProductDto product = productService.getProduct(id).getProducts().get(0);
+        assertEquals("Oat milk", product.getName());
+    }
+
+    @Test
+    void malformedInput_RollsBackWholeLoad() {
+        ProductLoadResponse report = load(ProductExportService.Format.CSV, "code,name,priceEur\n"
+                + code(1) + ",Milk,1.99\n"
+                + code(2) + ",Bread,cheap\n");
+
+        assertEquals(ProductLoadResponse.Phase.FAILED, report.getPhase());
+        assertFalse(report.getErrors().isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM products WHERE code LIKE ?", Long.class, prefix + "%"));
+    }
+
+    @Test
+    void unknownCsvColumn_IsRejected() {
+        ProductLoadResponse report = load(ProductExportService.Format.CSV, "code,colour\n" + code(1) + ",red\n");
+
+        assertEquals(ProductLoadResponse.Phase.FAILED, report.getPhase());
+        assertTrue(report.getErrors().get(0).contains("Unknown CSV column: colour."));
+    }
+
+    private ProductLoadResponse load(final ProductExportService.Format format, final String input) {
+        return productLoadService.load(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private String code(final int n) {
+        return prefix + String.format("%04d", n);
+    }
+
+    private String name(final String code) {
+        return jdbcTemplate.queryForObject("SELECT name FROM products WHERE code = ?", String.class, code);
+    }
+}
@@ -1,10 +1,16 @@
 package com.rest.service;
 
 import com.rest.converter.ProductDtoConverter;
+import com.rest.converter.RateTable;
+import com.rest.dto.Money;
 import com.rest.dto.ProductDto;
 import com.rest.entity.Product;
+import com.rest.filter.ProductCursor;
+import com.rest.filter.ProductFilter;
 import com.rest.repository.ProductRepository;
+import com.rest.web.response.ProductListing;
 import com.rest.web.response.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,14 +20,17 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,19 +82,19 @@ class ProductServiceTest {
 
     @Test
     void testAddProduct_Success() {
-        when(productRepository.existsByCode("P123456789"))
-            .thenReturn(false);
-        when(productRepository.save(any(Product.class)))
-            .thenReturn(validProduct);
         when(productDtoConverter.convert(any(ProductDto.class)))
             .thenReturn(validProduct);
+        when(productRepository.insertIfAbsent(validProduct))
+            .thenReturn(51L);
 
         ProductResponse response = productService.addProduct(validDto);
 
         assertNotNull(response.getProducts());
         assertEquals(1, response.getProducts().size());
+        assertEquals(51L, response.getProducts().get(0).getId());
         assertTrue(response.getErrors().isEmpty());
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository, never()).existsByCode(any());
+        verify(productRepository, never()).save(any());
     }
 
     @Test
@@ -95,13 +104,15 @@ class ProductServiceTest {
         assertTrue(response.getProducts().isEmpty());
         assertEquals(1, response.getErrors().size());
         assertEquals("Product is null.", response.getErrors().get(0));
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).insertIfAbsent(any());
     }
 
     @Test
     void testAddProduct_DuplicateCode() {
-        when(productRepository.existsByCode("P123456789"))
-            .thenReturn(true);
+        when(productDtoConverter.convert(any(ProductDto.class)))
+            .thenReturn(validProduct);
+        when(productRepository.insertIfAbsent(validProduct))
+            .thenReturn(null);
 
         ProductResponse response = productService.addProduct(validDto);
 
@@ -160,4 +171,137 @@ class ProductServiceTest {
         assertEquals(validDto.getName(), response.getProducts().get(0).getName());
         verify(productRepository).findById(1L);
     }
+
+    @Test
+    void testGetAllProducts_UnknownCurrency() {
+        when(usdConvertService.findRates())
+                .thenReturn(RateTable.EMPTY);
+
+        ProductListing listing = productService.getAllProducts(0, 10, "name", "{}", "GBP", null, ProductService.TotalCount.NONE);
+
+        assertEquals(ProductListing.Outcome.INVALID, listing.outcome());
+        assertTrue(listing.response().getProducts().isEmpty());
+        assertEquals("Unknown currency: GBP.", listing.response().getErrors().get(0));
+        verify(productRepository, never()).findDtoSlice(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetAllProducts_NoCountByDefault() {
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(validDto, validDto), Pageable.ofSize(2), true));
+        when(productDtoConverter.addPrices(anyList(), any(), any(RateTable.Selection.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProductListing response = productService.getAllProducts(0, 2, "name", "{}", null, null, ProductService.TotalCount.NONE);
+
+        assertEquals(2, response.response().getProducts().size());
+        assertTrue(response.response().getHasNext());
+        assertEquals(-1L, response.totalItems());
+        verify(productRepository, never()).countMatching(any());
+        verify(productRepository, never()).estimateCount();
+    }
+
+    @Test
+    void testGetAllProducts_ExactTotalOnRequest() {
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(validDto), Pageable.ofSize(10), false));
+        when(productRepository.countMatching(ProductFilter.NONE))
+                .thenReturn(1L);
+
+        ProductListing response = productService.getAllProducts(0, 10, "name", "{}", null, null, ProductService.TotalCount.EXACT);
+
+        assertFalse(response.response().getHasNext());
+        assertEquals(1L, response.totalItems());
+    }
+
+    @Test
+    void testGetAllProducts_EstimatedTotal() {
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(validDto), Pageable.ofSize(10), false));
+        when(productRepository.estimateCount())
+                .thenReturn(1000L);
+
+        ProductListing response = productService.getAllProducts(0, 10, "name", "{}", null, null, ProductService.TotalCount.ESTIMATE);
+
+        assertEquals(1000L, response.totalItems());
+        assertTrue(response.estimated());
+        verify(productRepository, never()).countMatching(any());
+    }
+
+    @Test
+    void testGetAllProducts_ReturnsCursorForNextPage() {
+        ProductDto last = new ProductDto(7L, "C000000007", "Lamp", Money.of(12.5), true, 0L);
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(validDto, last), invocation.getArgument(2), true));
+
+        ProductResponse response = productService.getAllProducts(0, 2, "name", "{}", null, null, ProductService.TotalCount.NONE).response();
+
+        ProductCursor cursor = ProductCursor.decode(response.getNextCursor());
+        assertEquals(ProductCursor.parseSort("name"), cursor.getSort());
+        assertEquals(response.getNextCursor(), ProductCursor.after(cursor.getSort(), last).encode());
+    }
+
+    @Test
+    void testGetAllProducts_AfterCursorSeeksFromFirstRow() {
+        String after = ProductCursor.after(ProductCursor.parseSort("priceEur,desc"), validDto).encode();
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), notNull(), any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(validDto), invocation.getArgument(2), false));
+
+        ProductResponse response = productService.getAllProducts(5000, 10, "name", "{}", null, after, ProductService.TotalCount.NONE).response();
+
+        assertFalse(response.getHasNext());
+        assertNull(response.getNextCursor());
+        verify(productRepository).findDtoSlice(eq(ProductFilter.NONE), notNull(), eq(PageRequest.of(0, 10, ProductCursor.parseSort("priceEur,desc"))));
+    }
+
+    @Test
+    void testGetAllProducts_InvalidCursor() {
+        ProductListing listing = productService.getAllProducts(0, 10, "name", "{}", null, "not-a-cursor", ProductService.TotalCount.NONE);
+
+        assertEquals(ProductListing.Outcome.INVALID, listing.outcome());
+        assertEquals("Invalid cursor.", listing.response().getErrors().get(0));
+        verify(productRepository, never()).findDtoSlice(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetAllProducts_NoMatchIsNotFound() {
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), Pageable.ofSize(10), false));
+        when(productRepository.countMatching(ProductFilter.NONE))
+                .thenReturn(0L);
+
+        ProductListing listing = productService.getAllProducts(0, 10, "name", "{}", null, null, ProductService.TotalCount.EXACT);
+
+        assertEquals(ProductListing.Outcome.NOT_FOUND, listing.outcome());
+        assertEquals("No products found.", listing.response().getErrors().get(0));
+        assertEquals(0L, listing.totalItems());
+    }
+
+    @Test
+    void testGetAllProducts_QueryFailureIsFailed() {
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        ProductListing listing = productService.getAllProducts(0, 10, "name", "{}", null, null, ProductService.TotalCount.NONE);
+
+        assertEquals(ProductListing.Outcome.FAILED, listing.outcome());
+        assertEquals("Error fetching products. Please check logs.", listing.response().getErrors().get(0));
+    }
+
+    @Test
+    void testGetAllProducts_RecordsPhasesAndOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(productService, "productMetrics", new ProductMetrics(registry));
+        when(productRepository.findDtoSlice(eq(ProductFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(validDto), Pageable.ofSize(10), false));
+
+        productService.getAllProducts(0, 10, "name", "{}", null, null, ProductService.TotalCount.NONE);
+        productService.getAllProducts(0, 10, "name", "{\"color\":\"red\"}", null, null, ProductService.TotalCount.NONE);
+
+        for (String phase : List.of("parse", "query", "count", "convert")) {
+            assertEquals(1, registry.get("products.listing.phase").tag("phase", phase).timer().count(), phase);
+        }
+        assertEquals(1.0, registry.get("products.listing.results").tag("result", "ok").counter().count());
+        assertEquals(1.0, registry.get("products.listing.results").tag("result", "invalid").counter().count());
+    }
 }
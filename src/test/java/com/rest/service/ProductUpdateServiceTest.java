@@ -0,0 +1,190 @@
+package com.rest.service;
+
+import com.rest.converter.ProductDtoConverter;
+import com.rest.dto.Money;
+import com.rest.dto.ProductDto;
+import com.rest.dto.ProductPatch;
+import com.rest.entity.Product;
+import com.rest.repository.ProductRepository;
+import com.rest.web.ProductJsonCache;
+import com.rest.web.response.ProductChange;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductUpdateServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final ProductJsonCache productJsonCache = mock(ProductJsonCache.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final SimpleTransactionStatus status = new SimpleTransactionStatus();
+
+    private final ProductUpdateService productUpdateService = new ProductUpdateService();
+
+    @BeforeEach
+    void setUp() {
+        UsdConvertService usdConvertService = mock(UsdConvertService.class);
+        when(usdConvertService.findUSDRate()).thenReturn(1.1);
+        ReflectionTestUtils.setField(productUpdateService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productUpdateService, "productDtoConverter", new ProductDtoConverter());
+        ReflectionTestUtils.setField(productUpdateService, "usdConvertService", usdConvertService);
+        ReflectionTestUtils.setField(productUpdateService, "productJsonCache", productJsonCache);
+        ReflectionTestUtils.setField(productUpdateService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(productUpdateService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status));
+    }
+
+    private static Product product(final long id, final long version) {
+        Product product = new Product(id, "P00000000" + id, "Widget " + id, 10.0, true);
+        ReflectionTestUtils.setField(product, "version", version);
+        return product;
+    }
+
+    private static ProductPatch price(final Long id, final double priceEur, final Long version) {
+        return new ProductPatch(id, null, null, Money.of(priceEur), null, version);
+    }
+
+    @Test
+    void patchProduct_ChangesOnlyGivenFields() {
+        Product stored = product(1, 3);
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(stored));
+
+        ProductChange change = productUpdateService.patchProduct(1, price(null, 12.5, 3L));
+
+        assertEquals(ProductChange.Outcome.APPLIED, change.outcome());
+        assertEquals(Money.of(12.5), stored.getPriceEur());
+        assertEquals("Widget 1", stored.getName());
+        assertEquals(Money.of(12.5), change.response().getProducts().get(0).getPriceEur());
+        verify(productRepository).flush();
+        verify(productJsonCache).evict(1L);
+        assertFalse(status.isRollbackOnly());
+    }
+
+    @Test
+    void patchProduct_StaleVersion_Conflict() {
+        Product stored = product(1, 4);
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(stored));
+
+        ProductChange change = productUpdateService.patchProduct(1, price(null, 12.5, 3L));
+
+        assertEquals(ProductChange.Outcome.CONFLICT, change.outcome());
+        assertEquals(Money.of(10.0), stored.getPriceEur());
+        assertTrue(status.isRollbackOnly());
+        verify(productRepository, never()).flush();
+    }
+
+    @Test
+    void patchProduct_ConcurrentWrite_Conflict() {
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(product(1, 3)));
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L)).when(productRepository).flush();
+
+        ProductChange change = productUpdateService.patchProduct(1, price(null, 12.5, 3L));
+
+        assertEquals(ProductChange.Outcome.CONFLICT, change.outcome());
+        verify(productJsonCache).evict(1L);
+    }
+
+    @Test
+    void patchProduct_DuplicateCode_Invalid() {
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(product(1, 0)));
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(productRepository).flush();
+
+        ProductChange change = productUpdateService.patchProduct(1, new ProductPatch(null, "P000000002", null, null, null, null));
+
+        assertEquals(ProductChange.Outcome.INVALID, change.outcome());
+        assertEquals(List.of("Product with code P000000002 already exists."), change.response().getErrors());
+    }
+
+    @Test
+    void patchProduct_InvalidFields_NothingLoaded() {
+        ProductChange change = productUpdateService.patchProduct(1, new ProductPatch(null, "short", " ", Money.of(-1.0), null, null));
+
+        assertEquals(ProductChange.Outcome.INVALID, change.outcome());
+        assertEquals(3, change.response().getErrors().size());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void replaceProduct_NotFound() {
+        when(productRepository.findAllInOrder(List.of(7L))).thenReturn(Arrays.asList((Product) null));
+        ProductDto dto = new ProductDto(0, "P000000007", "Lamp", 5.0, null, true);
+
+        ProductChange change = productUpdateService.replaceProduct(7, dto);
+
+        assertEquals(ProductChange.Outcome.NOT_FOUND, change.outcome());
+        assertEquals(List.of("No product found with id 7."), change.response().getErrors());
+    }
+
+    @Test
+    void patchProducts_OneStale_NoneChanged() {
+        Product first = product(1, 0);
+        Product second = product(2, 5);
+        when(productRepository.findAllInOrder(List.of(1L, 2L))).thenReturn(Arrays.asList(first, second));
+
+        ProductChange change = productUpdateService.patchProducts(List.of(price(1L, 11.0, 0L), price(2L, 12.0, 4L)));
+
+        assertEquals(ProductChange.Outcome.CONFLICT, change.outcome());
+        assertEquals(Money.of(10.0), first.getPriceEur());
+        assertTrue(status.isRollbackOnly());
+    }
+
+    @Test
+    void patchProducts_AllApplied_InRequestOrder() {
+        when(productRepository.findAllInOrder(List.of(2L, 1L))).thenReturn(Arrays.asList(product(2, 0), product(1, 0)));
+
+        ProductChange change = productUpdateService.patchProducts(List.of(price(2L, 12.0, null), price(1L, 11.0, null)));
+
+        assertEquals(ProductChange.Outcome.APPLIED, change.outcome());
+        assertEquals(List.of(2L, 1L), change.response().getProducts().stream().map(ProductDto::getId).toList());
+        verify(productJsonCache).evict(1L);
+        verify(productJsonCache).evict(2L);
+    }
+
+    @Test
+    void patchProducts_DuplicateOrMissingIds_Invalid() {
+        ProductChange change = productUpdateService.patchProducts(List.of(price(1L, 11.0, null), price(1L, 12.0, null), price(null, 1.0, null)));
+
+        assertEquals(ProductChange.Outcome.INVALID, change.outcome());
+        assertEquals(List.of("Change 2: Product 1 is changed more than once.", "Change 3: Product id is required."),
+                change.response().getErrors());
+    }
+
+    @Test
+    void deleteProduct_MatchingVersion_Deleted() {
+        Product stored = product(1, 2);
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(stored));
+
+        ProductChange change = productUpdateService.deleteProduct(1, 2L);
+
+        assertEquals(ProductChange.Outcome.APPLIED, change.outcome());
+        verify(productRepository).delete(stored);
+        verify(productJsonCache).evict(1L);
+    }
+
+    @Test
+    void deleteProduct_StaleVersion_Conflict() {
+        when(productRepository.findAllInOrder(List.of(1L))).thenReturn(Arrays.asList(product(1, 2)));
+
+        ProductChange change = productUpdateService.deleteProduct(1, 1L);
+
+        assertEquals(ProductChange.Outcome.CONFLICT, change.outcome());
+        verify(productRepository, never()).delete(any(Product.class));
+    }
+}
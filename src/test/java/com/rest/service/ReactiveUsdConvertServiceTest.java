@@ -0,0 +1,161 @@
+package com.rest.service;
+
+import com.rest.converter.RateTable;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the non-blocking rate service against a local stub HNB server
+ */
+class ReactiveUsdConvertServiceTest {
+
+    private static final String USD_RATES = "[{\"broj_tecajnice\":\"77\",\"datum_primjene\":\"2025-04-22\",\"drzava\":\"SAD\","
+            + "\"drzava_iso\":\"USA\",\"kupovni_tecaj\":\"1,0807\",\"prodajni_tecaj\":\"1,0839\",\"sifra_valute\":\"840\","
+            + "\"srednji_tecaj\":\"1,0823\",\"valuta\":\"USD\"}]";
+
+    private HttpServer stubHnb;
+
+    private final AtomicInteger stubCalls = new AtomicInteger();
+
+    private volatile int stubStatus = 200;
+
+    private volatile CountDownLatch stubGate = new CountDownLatch(0);
+
+    private ReactiveUsdConvertService usdConvertService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubHnb = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubHnb.setExecutor(Executors.newCachedThreadPool());
+        stubHnb.createContext("/tecajn-eur/v3", exchange -> {
+            stubCalls.incrementAndGet();
+            try {
+                stubGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final byte[] body = stubStatus == 200 ? USD_RATES.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(stubStatus, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubHnb.start();
+
+        usdConvertService = new ReactiveUsdConvertService();
+        ReflectionTestUtils.setField(usdConvertService, "hnbWebClient",
+                WebClient.create("http://localhost:" + stubHnb.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubGate.countDown();
+        stubHnb.stop(0);
+    }
+
+    @Test
+    void findRatesAsync_LoadsOnColdStartAndHoldsTable() {
+        StepVerifier.create(usdConvertService.findRatesAsync())
+                .assertNext(rates -> assertEquals(1.0823, rates.findRate("USD")))
+                .verifyComplete();
+        StepVerifier.create(usdConvertService.findRatesAsync())
+                .assertNext(rates -> assertEquals(1.0823, rates.findRate("USD")))
+                .verifyComplete();
+
+        assertEquals(1, stubCalls.get());
+        assertEquals(1.0823, usdConvertService.findUSDRate());
+    }
+
+    @Test
+    void concurrentColdReads_ShareOneHnbCall() {
+        stubGate = new CountDownLatch(1);
+
+        Mono<List<RateTable>> readers = Flux.range(0, 20)
+                .flatMap(i -> usdConvertService.findRatesAsync())
+                .collectList();
+
+        StepVerifier.create(readers)
+                .then(() -> stubGate.countDown())
+                .assertNext(tables -> {
+                    assertEquals(20, tables.size());
+                    assertTrue(tables.stream().allMatch(rates -> rates.findRate("USD") == 1.0823));
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, stubCalls.get());
+    }
+
+    @Test
+    void findRates_DoesNotWaitForColdLoad() throws InterruptedException {
+        stubGate = new CountDownLatch(1);
+
+        assertSame(RateTable.EMPTY, usdConvertService.findRates());
+        assertSame(RateTable.EMPTY, usdConvertService.findRates());
+        stubGate.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (usdConvertService.findRates() == RateTable.EMPTY && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0823, usdConvertService.findRates().findRate("USD"));
+        assertEquals(1, stubCalls.get());
+    }
+
+    @Test
+    void failedColdLoad_IsNotRetriedWithinColdRetryInterval() {
+        stubStatus = 500;
+
+        StepVerifier.create(usdConvertService.findRatesAsync()).expectNext(RateTable.EMPTY).verifyComplete();
+        StepVerifier.create(usdConvertService.findRatesAsync()).expectNext(RateTable.EMPTY).verifyComplete();
+        assertSame(RateTable.EMPTY, usdConvertService.findRates());
+
+        assertEquals(1, stubCalls.get());
+        assertEquals(1.0, usdConvertService.findUSDRate());
+    }
+
+    @Test
+    void failedColdLoad_IsRetriedAfterColdRetryInterval() {
+        ReflectionTestUtils.setField(usdConvertService, "coldRetryInterval", Duration.ZERO);
+        stubStatus = 500;
+        StepVerifier.create(usdConvertService.findRatesAsync()).expectNext(RateTable.EMPTY).verifyComplete();
+
+        stubStatus = 200;
+        StepVerifier.create(usdConvertService.findRatesAsync())
+                .assertNext(rates -> assertEquals(1.0823, rates.findRate("USD")))
+                .verifyComplete();
+        assertEquals(2, stubCalls.get());
+    }
+
+    @Test
+    void failedRefresh_KeepsHeldTable() {
+        StepVerifier.create(usdConvertService.findRatesAsync()).expectNextCount(1).verifyComplete();
+        stubStatus = 500;
+        ReflectionTestUtils.setField(usdConvertService, "maxAge", Duration.ZERO);
+
+        StepVerifier.create(usdConvertService.findRatesAsync())
+                .assertNext(rates -> assertEquals(1.0823, rates.findRate("USD")))
+                .verifyComplete();
+        assertEquals(1.0823, usdConvertService.findUSDRate());
+    }
+}
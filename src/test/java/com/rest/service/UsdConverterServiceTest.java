@@ -11,8 +11,11 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +28,7 @@ class UsdConverterServiceTest {
     private RestTemplate restTemplate;
 
     @InjectMocks
-    private UsdConvertService usdConverterService;
+    private BlockingUsdConvertService usdConverterService;
 
     ExchangeRates exchangeRates = new ExchangeRates("1", "2025-04-22", "SAD", "USA", "1.3255", "1.5435", "840", "2.0", "USD");;
 
@@ -41,7 +44,7 @@ class UsdConverterServiceTest {
         exchangeRates.setSrednji_tecaj("1.1234");
         
         when(restTemplate.exchange(
-            eq("https://api.hnb.hr/tecajn-eur/v3?valuta=USD"),
+            eq("https://api.hnb.hr/tecajn-eur/v3"),
             eq(HttpMethod.GET),
             any(HttpEntity.class),
             any(ParameterizedTypeReference.class))
@@ -57,7 +60,7 @@ class UsdConverterServiceTest {
     @Test
     public void findUSDRate_ReturnsOne_WhenApiUnavailable() {
         when(restTemplate.exchange(
-                eq("https://api.hnb.hr/tecajn-eur/v3?valuta=USD"),
+                eq("https://api.hnb.hr/tecajn-eur/v3"),
                 eq(HttpMethod.GET),
                 any(HttpEntity.class),
                 any(ParameterizedTypeReference.class))
@@ -67,6 +70,24 @@ class UsdConverterServiceTest {
         assertEquals(1.0, rate);
     }
 
+    @Test
+    public void findUSDRate_DoesNotCallApiAgain_WithinColdRetryInterval() {
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))
+        ).thenThrow(new RuntimeException("API unavailable"));
+
+        assertEquals(1.0, usdConverterService.findUSDRate());
+        assertEquals(1.0, usdConverterService.findUSDRate());
+        verify(restTemplate, times(1)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+
+        ReflectionTestUtils.setField(usdConverterService, "coldRetryAt", System.nanoTime());
+        assertEquals(1.0, usdConverterService.findUSDRate());
+        verify(restTemplate, times(2)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
     @Test
     public void findUSDRate_ReturnsOne_WhenMalformedResponse() {
         when(restTemplate.exchange(
@@ -92,4 +113,83 @@ class UsdConverterServiceTest {
         double rate = usdConverterService.findUSDRate();
         assertEquals(1.0, rate);
     }
+
+    @Test
+    public void findUSDRate_ServesHeldRate_WithoutCallingApiAgain() {
+        exchangeRates.setSrednji_tecaj("1.1234");
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))
+        ).thenReturn(new ResponseEntity<>(Collections.singletonList(exchangeRates), HttpStatus.OK));
+
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+
+        verify(restTemplate, times(1)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void findUSDRate_KeepsLastKnownRate_WhenRefreshFails() {
+        exchangeRates.setSrednji_tecaj("1.1234");
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))
+        ).thenReturn(new ResponseEntity<>(Collections.singletonList(exchangeRates), HttpStatus.OK))
+                .thenThrow(new RuntimeException("API unavailable"));
+
+        assertTrue(usdConverterService.refresh());
+        assertFalse(usdConverterService.refresh());
+
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+    }
+
+    @Test
+    public void findUSDRate_ServesStaleRate_WhileRefreshing() {
+        ReflectionTestUtils.setField(usdConverterService, "maxAge", Duration.ZERO);
+        exchangeRates.setSrednji_tecaj("1.1234");
+        ExchangeRates newRates = new ExchangeRates("2", "2025-04-23", "SAD", "USA", "1.3255", "1.5435", "840", "1.2000", "USD");
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))
+        ).thenReturn(new ResponseEntity<>(Collections.singletonList(exchangeRates), HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(Collections.singletonList(newRates), HttpStatus.OK));
+
+        assertTrue(usdConverterService.refresh());
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+
+        verify(restTemplate, timeout(5000).times(2)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void findUSDRate_DoesNotRefreshAgain_WithinRefreshRetryInterval() throws InterruptedException {
+        ReflectionTestUtils.setField(usdConverterService, "maxAge", Duration.ZERO);
+        exchangeRates.setSrednji_tecaj("1.1234");
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))
+        ).thenReturn(new ResponseEntity<>(Collections.singletonList(exchangeRates), HttpStatus.OK))
+                .thenThrow(new RuntimeException("API unavailable"));
+
+        assertTrue(usdConverterService.refresh());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1.1234, usdConverterService.findUSDRate());
+        }
+        verify(restTemplate, timeout(5000).times(2)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        Thread.sleep(200);
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+        verify(restTemplate, after(200).times(2)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+
+        ReflectionTestUtils.setField(usdConverterService, "refreshRetryAt", System.nanoTime());
+        assertEquals(1.1234, usdConverterService.findUSDRate());
+        verify(restTemplate, timeout(5000).times(3)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
 }
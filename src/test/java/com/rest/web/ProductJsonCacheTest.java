@@ -0,0 +1,106 @@
+package com.rest.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.converter.RateTable;
+import com.rest.dto.ExchangeRates;
+import com.rest.dto.ProductDto;
+import com.rest.service.UsdConvertService;
+import com.rest.web.response.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductJsonCacheTest {
+
+    private static final RateTable RATES = RateTable.of(List.of(
+            new ExchangeRates("77", "2025-04-22", "SAD", "USA", "1,0807", "1,0839", "840", "1,0823", "USD")));
+
+    private final UsdConvertService usdConvertService = mock(UsdConvertService.class);
+
+    private final ProductJsonCache productJsonCache = new ProductJsonCache(DataSize.ofMegabytes(1));
+
+    private final ProductResponse productResponse = new ProductResponse();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productJsonCache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(productJsonCache, "usdConvertService", usdConvertService);
+        when(usdConvertService.findRates()).thenReturn(RATES);
+        productResponse.addProduct(new ProductDto(1, "ABCDEFGHIJ", "Bread", 1.99, 2.15, true));
+    }
+
+    @Test
+    void get_HitsOnlyForSameRateVersion() {
+        ProductJsonCache.Entry entry = productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), productResponse);
+
+        assertSame(entry, productJsonCache.get(1L, "77@2025-04-22"));
+        assertNull(productJsonCache.get(1L, "78@2025-04-23"));
+        assertNull(productJsonCache.get(2L, "77@2025-04-22"));
+    }
+
+    @Test
+    void put_SkipsCachingWhenRatesChangedMeanwhile() {
+        ProductJsonCache.Entry entry = productJsonCache.put(1L, "76@2025-04-19", productJsonCache.stamp(1L), productResponse);
+
+        assertNotNull(entry.etag());
+        assertNull(productJsonCache.get(1L, "76@2025-04-19"));
+    }
+
+    @Test
+    void evict_RemovesEntry() {
+        productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), productResponse);
+
+        productJsonCache.evict(1L);
+
+        assertNull(productJsonCache.get(1L, "77@2025-04-22"));
+    }
+
+    @Test
+    void put_SkipsCachingWhenEvictedSinceRead() {
+        long stamp = productJsonCache.stamp(1L);
+        productJsonCache.evict(1L);
+
+        productJsonCache.put(1L, "77@2025-04-22", stamp, productResponse);
+        assertNull(productJsonCache.get(1L, "77@2025-04-22"), "response read before the change must not be kept");
+
+        productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), productResponse);
+        assertNotNull(productJsonCache.get(1L, "77@2025-04-22"));
+    }
+
+    @Test
+    void put_SkipsCachingWhenClearedSinceRead() {
+        long stamp = productJsonCache.stamp(1L);
+        productJsonCache.clear();
+
+        productJsonCache.put(1L, "77@2025-04-22", stamp, productResponse);
+
+        assertNull(productJsonCache.get(1L, "77@2025-04-22"));
+    }
+
+    @Test
+    void etag_IsStrongAndFollowsBody() {
+        ProductResponse sameBody = new ProductResponse();
+        sameBody.addProduct(new ProductDto(1, "ABCDEFGHIJ", "Bread", 1.99, 2.15, true));
+        String etag = productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), productResponse).etag();
+
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""));
+        assertEquals(etag, productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), sameBody).etag());
+        productResponse.addProduct(new ProductDto(2, "123hdk738e", "Milk", 0.99, 1.07, true));
+        assertNotEquals(etag, productJsonCache.put(1L, "77@2025-04-22", productJsonCache.stamp(1L), productResponse).etag());
+    }
+
+    @Test
+    void matches_HandlesListsWeakTagsAndWildcard() {
+        assertTrue(ProductJsonCache.matches("\"a\"", "\"a\""));
+        assertTrue(ProductJsonCache.matches("\"b\", W/\"a\"", "\"a\""));
+        assertTrue(ProductJsonCache.matches("*", "\"a\""));
+        assertFalse(ProductJsonCache.matches("\"b\"", "\"a\""));
+        assertFalse(ProductJsonCache.matches(null, "\"a\""));
+    }
+}
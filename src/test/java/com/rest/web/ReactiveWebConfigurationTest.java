@@ -0,0 +1,33 @@
+package com.rest.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveWebConfigurationTest {
+
+    @Test
+    void relax_EncodesJsonFilterInQuery() {
+        String relaxed = ReactiveWebConfiguration.RelaxedQueryHandler.relax("/api/products?filter={\"name\":{\"prefix\":\"wid\"}}&sort=name");
+
+        assertEquals("/api/products?filter=%7B%22name%22:%7B%22prefix%22:%22wid%22%7D%7D&sort=name", relaxed);
+        assertDoesNotThrow(() -> URI.create(relaxed));
+    }
+
+    @Test
+    void relax_KeepsLegalTargetsUnchanged() {
+        String encoded = "/api/products?filter=%7B%7D&per_page=5";
+        String noQuery = "/api/product/{id}";
+
+        assertSame(encoded, ReactiveWebConfiguration.RelaxedQueryHandler.relax(encoded));
+        assertSame(noQuery, ReactiveWebConfiguration.RelaxedQueryHandler.relax(noQuery));
+    }
+
+    @Test
+    void relax_EncodesSpacesPipesAndBrackets() {
+        assertEquals("/api/products?filter=%5B1%7C2%5D%20x",
+                ReactiveWebConfiguration.RelaxedQueryHandler.relax("/api/products?filter=[1|2] x"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.rest.web;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    @Test
+    void keepsWellFormedHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(RequestIdFilter.HEADER, "gw-1234.abc_DEF");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> logged = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(final ServletRequest req, final ServletResponse res) {
+                logged.set(MDC.get(RequestIdFilter.MDC_KEY));
+            }
+        });
+
+        assertEquals("gw-1234.abc_DEF", logged.get());
+        assertEquals("gw-1234.abc_DEF", response.getHeader(RequestIdFilter.HEADER));
+        assertNull(MDC.get(RequestIdFilter.MDC_KEY));
+    }
+
+    @Test
+    void replacesMissingOrUnsafeHeader() {
+        assertTrue(RequestIdFilter.requestIdOf(null).matches("[0-9a-f]{16}"));
+        assertTrue(RequestIdFilter.requestIdOf("").matches("[0-9a-f]{16}"));
+        assertTrue(RequestIdFilter.requestIdOf("abc\n2025-01-01 ERROR forged").matches("[0-9a-f]{16}"));
+        assertTrue(RequestIdFilter.requestIdOf("x".repeat(65)).matches("[0-9a-f]{16}"));
+        assertNotEquals(RequestIdFilter.requestIdOf(null), RequestIdFilter.requestIdOf(null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.rest.web;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Virtual thread specific settings, only active on Java 21 with spring.threads.virtual.enabled
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfiguration.class);
+
+    @Test
+    void virtualThreads_UseSharedJsonBufferPool() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+                assertSame(JsonRecyclerPools.sharedConcurrentDequePool(), context.getBean(ObjectMapper.class).getFactory()._getRecyclerPool()));
+    }
+
+    @Test
+    void platformThreads_KeepDefaultJsonBufferPool() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("sharedJsonBufferPoolCustomizer"));
+            assertNotSame(JsonRecyclerPools.sharedConcurrentDequePool(), context.getBean(ObjectMapper.class).getFactory()._getRecyclerPool());
+        });
+    }
+}